@@ -0,0 +1,40 @@
+package io.github.uniclog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Temporary {@link CorpusGenerator} trees for the benchmarks.
+ */
+final class BenchmarkCorpus {
+    private static final long SEED = 42;
+
+    private BenchmarkCorpus() {
+    }
+
+    static Path create(int artifacts, int jarSizeKb, int entriesPerJar, int depth) throws IOException {
+        Path root = Files.createTempDirectory("install-multiple-corpus");
+        var generator = new CorpusGenerator(SEED);
+        generator.setJarSizeKb(jarSizeKb);
+        generator.setEntriesPerJar(entriesPerJar);
+        generator.setDepth(depth);
+        generator.setCorruptPercent(0);
+        generator.generate(root, artifacts);
+        return root;
+    }
+
+    static byte[] pom(int dependencies) {
+        return CorpusGenerator.pom("com.example", "artifact", "1.0", "jar", dependencies, true);
+    }
+
+    static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
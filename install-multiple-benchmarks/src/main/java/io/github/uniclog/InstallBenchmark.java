@@ -0,0 +1,104 @@
+package io.github.uniclog;
+
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.repository.LocalRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end discovery, POM resolution and installation into an empty local repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InstallBenchmark {
+    @Param({"1000"})
+    public int artifacts;
+    @Param({"64"})
+    public int jarSizeKb;
+    @Param({"2"})
+    public int depth;
+    @Param({"1", "100"})
+    public int installBatchSize;
+    @Param({"1", "4"})
+    public int threads;
+
+    private final Log log = new DefaultLog(new ConsoleLogger(Logger.LEVEL_WARN, "benchmark"));
+    private RepositorySystem repositorySystem;
+    private Path corpus;
+    private Path repository;
+
+    @SuppressWarnings("deprecation")
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        repositorySystem = MavenRepositorySystemUtils.newServiceLocator().getService(RepositorySystem.class);
+        corpus = BenchmarkCorpus.create(artifacts, jarSizeKb, 100, depth);
+    }
+
+    @Setup(Level.Invocation)
+    public void newRepository() throws IOException {
+        repository = Files.createTempDirectory("install-multiple-repo");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteRepository() throws IOException {
+        BenchmarkCorpus.delete(repository);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkCorpus.delete(corpus);
+    }
+
+    @Benchmark
+    public String install() throws MojoExecutionException {
+        DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session.setLocalRepositoryManager(repositorySystem.newLocalRepositoryManager(session,
+                new LocalRepository(repository.toFile())));
+
+        var resolver = new FileResolver(log);
+        var installer = new ArtifactInstaller(repositorySystem, session, installBatchSize,
+                new File(repository.toFile(), ".install-multiple-spool"), log);
+        var scanner = new DirectoryScanner(true, log);
+        if (threads > 1) {
+            var pipeline = new InstallPipeline(threads, threads * 4, resolver::resolve, installer, log);
+            try {
+                scanner.scan(corpus.toFile(), pipeline::submit);
+            } finally {
+                pipeline.await();
+            }
+        } else {
+            scanner.scan(corpus.toFile(), file ->
+                    installer.add(new ResolvedFile(file.getFile(), resolver.resolve(file))));
+            installer.flush();
+        }
+        return installer.summary();
+    }
+}
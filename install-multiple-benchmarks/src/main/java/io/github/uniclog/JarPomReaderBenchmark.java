@@ -0,0 +1,68 @@
+package io.github.uniclog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Locating and reading the embedded pom.xml of a jar ({@code readingPomFromJarFile}): the central
+ * directory reader against the {@link java.util.jar.JarFile} entry scan it replaced, on increasingly fat jars.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JarPomReaderBenchmark {
+    @Param({"10", "1000", "20000"})
+    public int entriesPerJar;
+
+    private Path corpus;
+    private File[] jars;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        corpus = BenchmarkCorpus.create(16, 256, entriesPerJar, 0);
+        try (Stream<Path> paths = Files.list(corpus)) {
+            jars = paths.filter(path -> path.toString().endsWith(".jar"))
+                    .map(Path::toFile)
+                    .collect(Collectors.toList())
+                    .toArray(new File[0]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkCorpus.delete(corpus);
+    }
+
+    @Benchmark
+    public Object readPom() throws IOException {
+        return JarPomReader.read(jars[next++ % jars.length]);
+    }
+
+    @Benchmark
+    public Object readPomWithJarFile() throws IOException {
+        return JarPomReader.readWithJarFile(jars[next++ % jars.length], EmbeddedPomSelector.FILE_NAME);
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.uniclog;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full {@code readModel} (MavenXpp3Reader) against the streaming coordinate scanner.
+ * Run with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PomReaderBenchmark {
+    @Param({"0", "50", "500"})
+    public int dependencies;
+
+    private byte[] pom;
+
+    @Setup
+    public void setUp() {
+        pom = BenchmarkCorpus.pom(dependencies);
+    }
+
+    @Benchmark
+    public Model readModel() throws IOException, XmlPullParserException {
+        return new MavenXpp3Reader().read(new ByteArrayInputStream(pom));
+    }
+
+    @Benchmark
+    public PomCoordinates readCoordinates() throws IOException, XmlPullParserException {
+        return PomCoordinatesReader.read(new ByteArrayInputStream(pom));
+    }
+}
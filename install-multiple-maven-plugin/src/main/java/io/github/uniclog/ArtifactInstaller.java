@@ -0,0 +1,288 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.installation.InstallRequest;
+import org.eclipse.aether.installation.InstallationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Install stage: collects resolved artifacts and submits them to the repository system in batches.
+ * {@link InMemoryArtifact}s are written to the spool directory only for the duration of their batch.
+ * With {@code skipIdentical}, artifacts whose bytes are already in the local repository are left out of the request.
+ * Non-POM files are placed according to the {@link InstallStrategy} before the request is submitted.
+ * With a {@link StagedRepository}, requests go to the staging tree and listeners only hear of files once committed,
+ * after each batch or when {@link #commit()} is called.
+ * Not thread-safe, it is expected to be driven by a single thread.
+ */
+class ArtifactInstaller {
+    private final RepositorySystem repositorySystem;
+    private final RepositorySystemSession repositorySystemSession;
+    private final int batchSize;
+    private final Path spoolDirectory;
+    private final Log log;
+    private boolean skipIdentical;
+    private InstallStrategy installStrategy = InstallStrategy.COPY;
+    private RepositorySystemSession stagingSession;
+    private StagedRepository staging;
+    private boolean commitBatches;
+
+    private final List<Listener> listeners = new ArrayList<>();
+    private final List<ResolvedFile> pendingFiles = new ArrayList<>();
+    private final List<ResolvedFile> uncommittedFiles = new ArrayList<>();
+    private int pendingArtifacts;
+    private int installedArtifacts;
+    private int installedBatches;
+    private long installMillis;
+    private int spooledFiles;
+    private int identicalArtifacts;
+    private long identicalBytes;
+    private int linkedArtifacts;
+    private long linkedBytes;
+
+    ArtifactInstaller(RepositorySystem repositorySystem, RepositorySystemSession repositorySystemSession,
+                      int batchSize, File spoolDirectory, Log log) {
+        this.repositorySystem = repositorySystem;
+        this.repositorySystemSession = repositorySystemSession;
+        this.batchSize = Math.max(batchSize, 1);
+        this.spoolDirectory = spoolDirectory.toPath();
+        this.log = log;
+    }
+
+    void setSkipIdentical(boolean skipIdentical) {
+        this.skipIdentical = skipIdentical;
+    }
+
+    void setInstallStrategy(InstallStrategy installStrategy) {
+        this.installStrategy = installStrategy;
+    }
+
+    /**
+     * @param stagingSession session whose local repository is the staging tree
+     * @param commitBatches  commit after every batch rather than once for the whole run
+     */
+    void setStaging(RepositorySystemSession stagingSession, StagedRepository staging, boolean commitBatches) {
+        this.stagingSession = stagingSession;
+        this.staging = staging;
+        this.commitBatches = commitBatches;
+    }
+
+    /**
+     * A batch that failed to install, with the source of every file it held.
+     */
+    static class BatchException extends MojoExecutionException {
+        private static final long serialVersionUID = 1L;
+
+        private final List<File> sources = new ArrayList<>();
+
+        BatchException(String message, Throwable cause, List<ResolvedFile> files) {
+            super(message, cause);
+            files.forEach(file -> sources.add(file.getSource()));
+        }
+
+        List<File> getSources() {
+            return sources;
+        }
+    }
+
+    interface Listener {
+        void installed(ResolvedFile file);
+    }
+
+    void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    void add(ResolvedFile file) throws MojoExecutionException {
+        if (file.getArtifacts().isEmpty()) return;
+
+        pendingFiles.add(file);
+        pendingArtifacts += file.getArtifacts().size();
+        if (pendingArtifacts >= batchSize) {
+            flush();
+        }
+    }
+
+    void flush() throws MojoExecutionException {
+        if (pendingFiles.isEmpty()) return;
+
+        List<Path> spooled = new ArrayList<>();
+        InstallRequest installRequest = new InstallRequest();
+        long start = System.nanoTime();
+        try {
+            for (ResolvedFile file : pendingFiles) {
+                for (Artifact artifact : file.getArtifacts()) {
+                    if (skipIdentical && isInstalled(artifact)) continue;
+                    link(artifact);
+                    installRequest.addArtifact(spool(artifact, spooled));
+                }
+            }
+            if (!installRequest.getArtifacts().isEmpty()) {
+                repositorySystem.install(getInstallSession(), installRequest);
+            }
+            if (isNull(staging)) {
+                pendingFiles.forEach(file -> listeners.forEach(listener -> listener.installed(file)));
+            } else {
+                installRequest.getArtifacts().forEach(artifact ->
+                        staging.add(stagingSession.getLocalRepositoryManager().getPathForLocalArtifact(artifact)));
+                uncommittedFiles.addAll(pendingFiles);
+                if (commitBatches) commit();
+            }
+        } catch (IOException e) {
+            if (commitBatches) rollback();
+            throw new BatchException("Error preparing artifacts for installation: " + e.getMessage(), e, pendingFiles);
+        } catch (InstallationException e) {
+            if (commitBatches) rollback();
+            throw new BatchException(e.getMessage(), e, pendingFiles);
+        } catch (MojoExecutionException e) {
+            throw new BatchException(e.getMessage(), e, pendingFiles);
+        } finally {
+            pendingFiles.clear();
+            pendingArtifacts = 0;
+            deleteSpooled(spooled);
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (installRequest.getArtifacts().isEmpty()) return;
+
+        installedBatches++;
+        installedArtifacts += installRequest.getArtifacts().size();
+        installMillis += millis;
+        log.debug(String.format("Installed batch #%d: %d artifacts in %d ms",
+                installedBatches, installRequest.getArtifacts().size(), millis));
+        installRequest.getArtifacts().forEach(artifact -> log.debug("Installed: " + artifact));
+    }
+
+    /**
+     * Moves the artifacts staged so far into the local repository, then notifies the listeners.
+     */
+    void commit() throws MojoExecutionException {
+        if (isNull(staging)) return;
+        try {
+            staging.commit();
+        } catch (IOException e) {
+            rollback();
+            throw new MojoExecutionException("Error committing staged artifacts: " + e.getMessage(), e);
+        }
+        uncommittedFiles.forEach(file -> listeners.forEach(listener -> listener.installed(file)));
+        uncommittedFiles.clear();
+    }
+
+    /**
+     * Discards the artifacts staged since the last commit.
+     */
+    void rollback() {
+        if (isNull(staging)) return;
+        staging.rollback();
+        uncommittedFiles.clear();
+    }
+
+    private RepositorySystemSession getInstallSession() {
+        return isNull(staging) ? repositorySystemSession : stagingSession;
+    }
+
+    private static Path getTarget(RepositorySystemSession session, Artifact artifact) {
+        return session.getLocalRepository().getBasedir().toPath()
+                .resolve(session.getLocalRepositoryManager().getPathForLocalArtifact(artifact));
+    }
+
+    private void link(Artifact artifact) throws IOException {
+        if (installStrategy == InstallStrategy.COPY || artifact instanceof InMemoryArtifact
+                || "pom".equals(artifact.getExtension())) return;
+
+        Path source = artifact.getFile().toPath();
+        if (installStrategy.install(source, getTarget(getInstallSession(), artifact))) {
+            linkedArtifacts++;
+            linkedBytes += Files.size(source);
+            log.debug("Linked (" + installStrategy + "): " + artifact);
+        }
+    }
+
+    private boolean isInstalled(Artifact artifact) throws IOException {
+        Path target = getTarget(repositorySystemSession, artifact);
+        if (!Files.isRegularFile(target)) return false;
+
+        long size = artifact instanceof InMemoryArtifact
+                ? ((InMemoryArtifact) artifact).getContent().length
+                : Files.size(artifact.getFile().toPath());
+        if (size != Files.size(target)) return false;
+
+        boolean identical;
+        if (artifact instanceof InMemoryArtifact) {
+            identical = Arrays.equals(((InMemoryArtifact) artifact).getContent(), Files.readAllBytes(target));
+        } else {
+            identical = Digests.hex(artifact.getFile().toPath(), Digests.SHA_1).equals(getSha1(target));
+        }
+        if (identical) {
+            identicalArtifacts++;
+            identicalBytes += size;
+            log.debug("Skipping identical artifact: " + artifact);
+        }
+        return identical;
+    }
+
+    private static String getSha1(Path target) throws IOException {
+        Path checksum = target.resolveSibling(target.getFileName() + ".sha1");
+        if (Files.isRegularFile(checksum)) {
+            String[] content = new String(Files.readAllBytes(checksum), StandardCharsets.US_ASCII).trim().split("\\s+");
+            if (content.length > 0 && content[0].length() == 40) {
+                return content[0].toLowerCase(Locale.ROOT);
+            }
+        }
+        return Digests.hex(target, Digests.SHA_1);
+    }
+
+    private Artifact spool(Artifact artifact, List<Path> spooled) throws IOException {
+        if (!(artifact instanceof InMemoryArtifact)) return artifact;
+
+        Files.createDirectories(spoolDirectory);
+        Path file = Files.createTempFile(spoolDirectory, artifact.getArtifactId() + "-", "." + artifact.getExtension());
+        spooled.add(file);
+        Files.write(file, ((InMemoryArtifact) artifact).getContent());
+        spooledFiles++;
+        return artifact.setFile(file.toFile());
+    }
+
+    private void deleteSpooled(List<Path> spooled) {
+        try {
+            for (Path file : spooled) {
+                Files.deleteIfExists(file);
+            }
+            if (!spooled.isEmpty()) {
+                Files.deleteIfExists(spoolDirectory);
+            }
+        } catch (IOException e) {
+            log.debug("Unable to clean spool directory " + spoolDirectory + ": " + e.getMessage());
+        }
+    }
+
+    int getSpooledFiles() {
+        return spooledFiles;
+    }
+
+    String summary() {
+        String summary = String.format("Installed %d artifacts in %d batches (%d ms)",
+                installedArtifacts, installedBatches, installMillis);
+        if (skipIdentical) {
+            summary += String.format(", skipped %d identical artifacts (%d bytes)", identicalArtifacts, identicalBytes);
+        }
+        if (installStrategy != InstallStrategy.COPY) {
+            summary += String.format(", %s %d artifacts (%d bytes not copied)",
+                    installStrategy.name().toLowerCase(Locale.ROOT), linkedArtifacts, linkedBytes);
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,352 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Discovery stage for a bundle archive ({@code .zip}, {@code .tar}, {@code .tar.gz}, {@code .tgz}) given as
+ * {@code files}, without extracting it first.
+ * <p>
+ * A first pass reads only the entry names and groups them per archive directory with a {@link DirectoryIndex},
+ * exactly as the directory scanner does on disk. The second pass streams the archive and spools only the entries
+ * that belong to a group; a group is handed to the sink as soon as its last member has been spooled, and its files
+ * are deleted again as soon as it leaves the install pipeline, installed, skipped or failed ({@link #release}).
+ * Scratch space is therefore bounded by what the install pipeline holds in flight, not by the size of the bundle.
+ * Every directory of the archive is scanned.
+ * <p>
+ * The later stages only see the spooled copies; {@link #describing(Log)} makes their messages name the
+ * {@code bundle!/entry} instead.
+ */
+class BundleScanner {
+    private final File bundle;
+    private final Path spoolDirectory;
+    private final List<String> classifiers;
+    private final PathFilter filter;
+    private final Log log;
+    private final Map<File, List<Path>> spooledGroups = new ConcurrentHashMap<>();
+    private final AtomicInteger spooledFiles = new AtomicInteger();
+    private final AtomicInteger peakSpooledFiles = new AtomicInteger();
+    private int entries;
+    private int groups;
+    private int spooledTotal;
+    private long spooledBytes;
+
+    BundleScanner(File bundle, File spoolDirectory, List<String> classifiers, PathFilter filter, Log log) {
+        this.bundle = bundle;
+        this.spoolDirectory = spoolDirectory.toPath().resolve("bundle-" + bundle.getName()).toAbsolutePath().normalize();
+        this.classifiers = classifiers;
+        this.filter = filter;
+        this.log = log;
+    }
+
+    /**
+     * @param bundle explicit choice, or {@code null} to detect: tar archives always are bundles,
+     *               zip files when they contain at least one {@code .pom} entry
+     */
+    static boolean isBundle(File file, Boolean bundle) throws IOException {
+        if (!file.isFile()) return false;
+        if (!isNull(bundle)) return bundle;
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".tar") || name.endsWith(".tar.gz") || name.endsWith(".tgz")) return true;
+        if (!name.endsWith(".zip")) return false;
+        try (ZipFile zip = new ZipFile(file)) {
+            return zip.stream().anyMatch(entry -> entry.getName().endsWith(".pom"));
+        }
+    }
+
+    void scan(CandidateSink sink) throws MojoExecutionException {
+        Map<String, DirectoryIndex<String>> indexes = new LinkedHashMap<>();
+        try {
+            forEachEntry(false, (name, lastModified, content) -> index(name, indexes));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error reading bundle " + bundle, e);
+        }
+
+        Map<String, PendingGroup> members = new HashMap<>();
+        for (DirectoryIndex<String> index : indexes.values()) {
+            for (DirectoryIndex.Group<String> group : index.groups()) {
+                var pending = new PendingGroup(group);
+                pending.members.forEach(member -> members.put(member, pending));
+                groups++;
+            }
+        }
+        indexes.clear();
+
+        try {
+            forEachEntry(true, (name, lastModified, content) -> {
+                PendingGroup pending = members.remove(name);
+                if (isNull(pending)) return;
+                pending.spooled.put(name, spool(name, lastModified, content));
+                if (pending.spooled.size() == pending.members.size()) {
+                    pending.accept(sink);
+                }
+            });
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error reading bundle " + bundle, e);
+        }
+        if (!members.isEmpty()) {
+            log.warn(members.size() + " bundle entries could not be read: " + members.keySet());
+        }
+    }
+
+    /**
+     * Deletes the spooled files of a group that was installed or will not be; other files are ignored.
+     *
+     * @param source the main file of the group, as handed to the sink
+     */
+    void release(File source) {
+        List<Path> spooled = spooledGroups.remove(source);
+        if (isNull(spooled)) return;
+        for (Path path : spooled) {
+            try {
+                Files.deleteIfExists(path);
+                spooledFiles.decrementAndGet();
+            } catch (IOException e) {
+                log.debug("Unable to delete spooled file " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deletes whatever is left in the spool directory (groups still in flight when the run failed), and the shared
+     * spool directory above it once empty.
+     */
+    void cleanup() {
+        if (!Files.isDirectory(spoolDirectory)) return;
+        try (Stream<Path> paths = Files.walk(spoolDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            Files.deleteIfExists(spoolDirectory.getParent());
+        } catch (DirectoryNotEmptyException e) {
+            log.debug("Spool directory still in use: " + e.getFile());
+        } catch (IOException e) {
+            log.warn("Unable to clean up " + spoolDirectory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the message with the paths of spooled files replaced by the {@code bundle!/entry} they come from
+     */
+    String describe(CharSequence message) {
+        return message.toString().replace(spoolDirectory + File.separator, bundle.getPath() + "!/");
+    }
+
+    /**
+     * @return a log that names spooled files by their bundle entry
+     */
+    Log describing(Log log) {
+        return new EntryLog(log);
+    }
+
+    String summary() {
+        return String.format("Bundle %s: %d entries, %d groups, %d files spooled (%d bytes), at most %d at once",
+                bundle.getName(), entries, groups, spooledTotal, spooledBytes, peakSpooledFiles.get());
+    }
+
+    private void index(String name, Map<String, DirectoryIndex<String>> indexes) {
+        entries++;
+        int slash = name.lastIndexOf('/');
+        String directory = slash < 0 ? "" : name.substring(0, slash);
+        if (isExcluded(directory)) return;
+
+        if (!spoolDirectory.resolve(name).normalize().startsWith(spoolDirectory)) {
+            log.warn("Ignoring bundle entry outside of the bundle: " + name);
+            return;
+        }
+
+        String fileName = name.substring(slash + 1);
+        String packaging = DirectoryScanner.packagingOf(fileName);
+        if (!isNull(packaging) && !filter.includesFile(name)) packaging = null;
+        indexes.computeIfAbsent(directory, key -> new DirectoryIndex<>(classifiers)).add(fileName, packaging, name);
+    }
+
+    private boolean isExcluded(String directory) {
+        for (int slash = directory.indexOf('/'); ; slash = directory.indexOf('/', slash + 1)) {
+            String parent = slash < 0 ? directory : directory.substring(0, slash);
+            if (filter.excludesDirectory(parent)) return true;
+            if (slash < 0) return false;
+        }
+    }
+
+    private Path spool(String name, long lastModified, InputStream content) throws IOException {
+        Path target = spoolDirectory.resolve(name).normalize();
+        if (!target.startsWith(spoolDirectory)) {
+            throw new IOException("Bundle entry outside of the bundle: " + name);
+        }
+        Files.createDirectories(target.getParent());
+        spooledBytes += Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
+        if (lastModified > 0) {
+            Files.setLastModifiedTime(target, FileTime.fromMillis(lastModified));
+        }
+        spooledTotal++;
+        peakSpooledFiles.accumulateAndGet(spooledFiles.incrementAndGet(), Math::max);
+        return target;
+    }
+
+    private void forEachEntry(boolean withContent, EntryVisitor visitor) throws IOException, MojoExecutionException {
+        String name = bundle.getName().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".tar") || name.endsWith(".tar.gz") || name.endsWith(".tgz")) {
+            try (TarReader tar = TarReader.open(bundle)) {
+                for (TarReader.Entry entry = tar.next(); !isNull(entry); entry = tar.next()) {
+                    if (entry.isFile()) {
+                        visitor.visit(entry.getName(), entry.getLastModified(), withContent ? tar.content() : null);
+                    }
+                }
+            }
+            return;
+        }
+        try (ZipFile zip = new ZipFile(bundle)) {
+            for (Enumeration<? extends ZipEntry> zipEntries = zip.entries(); zipEntries.hasMoreElements(); ) {
+                ZipEntry entry = zipEntries.nextElement();
+                if (entry.isDirectory()) continue;
+                if (!withContent) {
+                    visitor.visit(entry.getName(), entry.getTime(), null);
+                    continue;
+                }
+                try (InputStream in = zip.getInputStream(entry)) {
+                    visitor.visit(entry.getName(), entry.getTime(), in);
+                }
+            }
+        }
+    }
+
+    private class EntryLog implements Log {
+        private final Log log;
+
+        EntryLog(Log log) {
+            this.log = log;
+        }
+
+        @Override
+        public boolean isDebugEnabled() {
+            return log.isDebugEnabled();
+        }
+
+        @Override
+        public void debug(CharSequence content) {
+            if (log.isDebugEnabled()) log.debug(describe(content));
+        }
+
+        @Override
+        public void debug(CharSequence content, Throwable error) {
+            if (log.isDebugEnabled()) log.debug(describe(content), error);
+        }
+
+        @Override
+        public void debug(Throwable error) {
+            log.debug(error);
+        }
+
+        @Override
+        public boolean isInfoEnabled() {
+            return log.isInfoEnabled();
+        }
+
+        @Override
+        public void info(CharSequence content) {
+            log.info(describe(content));
+        }
+
+        @Override
+        public void info(CharSequence content, Throwable error) {
+            log.info(describe(content), error);
+        }
+
+        @Override
+        public void info(Throwable error) {
+            log.info(error);
+        }
+
+        @Override
+        public boolean isWarnEnabled() {
+            return log.isWarnEnabled();
+        }
+
+        @Override
+        public void warn(CharSequence content) {
+            log.warn(describe(content));
+        }
+
+        @Override
+        public void warn(CharSequence content, Throwable error) {
+            log.warn(describe(content), error);
+        }
+
+        @Override
+        public void warn(Throwable error) {
+            log.warn(error);
+        }
+
+        @Override
+        public boolean isErrorEnabled() {
+            return log.isErrorEnabled();
+        }
+
+        @Override
+        public void error(CharSequence content) {
+            log.error(describe(content));
+        }
+
+        @Override
+        public void error(CharSequence content, Throwable error) {
+            log.error(describe(content), error);
+        }
+
+        @Override
+        public void error(Throwable error) {
+            log.error(error);
+        }
+    }
+
+    private interface EntryVisitor {
+        void visit(String name, long lastModified, InputStream content) throws IOException, MojoExecutionException;
+    }
+
+    /**
+     * A group of entries waiting for all its members to be spooled.
+     */
+    private class PendingGroup {
+        private final DirectoryIndex.Group<String> group;
+        private final List<String> members = new ArrayList<>();
+        private final Map<String, Path> spooled = new HashMap<>();
+
+        PendingGroup(DirectoryIndex.Group<String> group) {
+            this.group = group;
+            members.add(group.getMain());
+            members.addAll(group.getAttachments());
+            if (!isNull(group.getPom())) members.add(group.getPom());
+        }
+
+        void accept(CandidateSink sink) throws MojoExecutionException {
+            File main = spooled.get(group.getMain()).toFile();
+            List<File> attachments = new ArrayList<>(group.getAttachments().size());
+            group.getAttachments().forEach(attachment -> attachments.add(spooled.get(attachment).toFile()));
+            File pom = isNull(group.getPom()) ? null : spooled.get(group.getPom()).toFile();
+            spooledGroups.put(main, new ArrayList<>(spooled.values()));
+            sink.accept(new DiscoveredFile(main, group.getPackaging(), attachments, pom, null));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * Receives the files found during discovery, grouped with their attachments and paired POM.
+ */
+interface CandidateSink {
+    void accept(DiscoveredFile file) throws MojoExecutionException;
+}
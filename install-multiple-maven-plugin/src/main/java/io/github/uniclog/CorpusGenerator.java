@@ -0,0 +1,214 @@
+package io.github.uniclog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Deterministic generator of artifact drop directories for load testing.
+ * The same seed and sizes always produce byte-identical trees; files are written one at a time,
+ * so memory use does not depend on the number of artifacts.
+ * <p>
+ * Artifact {@code i} goes to a directory derived from its index ({@code depth} levels of {@code fanout} subdirectories)
+ * and is, by the configured percentages, a corrupted jar, a zip with a sibling POM,
+ * a standalone POM inheriting groupId/version from the corpus parent, or a jar with an embedded POM.
+ */
+class CorpusGenerator {
+    static final String GROUP_ID = "com.example.corpus";
+    static final String PARENT_ARTIFACT_ID = "corpus-parent";
+    static final String VERSION = "1.0";
+    private static final long ENTRY_TIME = 946684800000L;
+
+    private final long seed;
+    private int jarSizeKb = 4;
+    private int entriesPerJar = 10;
+    private int depth = 2;
+    private int fanout = 10;
+    private int zipPercent = 10;
+    private int standalonePomPercent = 10;
+    private int corruptPercent = 1;
+
+    CorpusGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    void setJarSizeKb(int jarSizeKb) {
+        this.jarSizeKb = jarSizeKb;
+    }
+
+    void setEntriesPerJar(int entriesPerJar) {
+        this.entriesPerJar = entriesPerJar;
+    }
+
+    void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    void setFanout(int fanout) {
+        this.fanout = Math.max(fanout, 1);
+    }
+
+    void setZipPercent(int zipPercent) {
+        this.zipPercent = zipPercent;
+    }
+
+    void setStandalonePomPercent(int standalonePomPercent) {
+        this.standalonePomPercent = standalonePomPercent;
+    }
+
+    void setCorruptPercent(int corruptPercent) {
+        this.corruptPercent = corruptPercent;
+    }
+
+    /**
+     * @return number of files written, per kind
+     */
+    Stats generate(Path root, int artifacts) throws IOException {
+        Stats stats = new Stats();
+        Files.createDirectories(root);
+        Files.write(root.resolve(PARENT_ARTIFACT_ID + "-" + VERSION + ".pom"),
+                pom(GROUP_ID, PARENT_ARTIFACT_ID, VERSION, "pom", 0, false));
+        stats.poms++;
+
+        for (int i = 0; i < artifacts; i++) {
+            Random random = new Random(seed * 1_000_003L + i);
+            Path dir = root;
+            for (int level = 0, index = i; level < depth; level++, index /= fanout) {
+                dir = dir.resolve("d" + index % fanout);
+            }
+            Files.createDirectories(dir);
+
+            String groupId = GROUP_ID + ".g" + i % 100;
+            String artifactId = "artifact-" + i;
+            String baseName = artifactId + "-" + VERSION;
+            int kind = random.nextInt(100);
+            if (kind < corruptPercent) {
+                writeRandom(dir.resolve(baseName + ".jar"), jarSizeKb * 1024, random);
+                stats.corruptJars++;
+            } else if (kind < corruptPercent + zipPercent) {
+                writeZip(dir.resolve(baseName + ".zip"), random);
+                Files.write(dir.resolve(baseName + ".pom"), pom(groupId, artifactId, VERSION, "zip", 5, false));
+                stats.zips++;
+                stats.poms++;
+            } else if (kind < corruptPercent + zipPercent + standalonePomPercent) {
+                Files.write(dir.resolve(baseName + ".pom"), pom(null, artifactId, null, "pom", 5, true));
+                stats.poms++;
+            } else {
+                writeJar(dir.resolve(baseName + ".jar"), groupId, artifactId, random);
+                stats.jars++;
+            }
+        }
+        return stats;
+    }
+
+    static byte[] pom(String groupId, String artifactId, String version, String packaging,
+                      int dependencies, boolean inheritFromParent) {
+        StringBuilder pom = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n")
+                .append("  <modelVersion>4.0.0</modelVersion>\n");
+        if (inheritFromParent) {
+            pom.append("  <parent>\n")
+                    .append("    <groupId>").append(GROUP_ID).append("</groupId>\n")
+                    .append("    <artifactId>").append(PARENT_ARTIFACT_ID).append("</artifactId>\n")
+                    .append("    <version>").append(VERSION).append("</version>\n")
+                    .append("  </parent>\n");
+        }
+        if (groupId != null) {
+            pom.append("  <groupId>").append(groupId).append("</groupId>\n");
+        }
+        pom.append("  <artifactId>").append(artifactId).append("</artifactId>\n");
+        if (version != null) {
+            pom.append("  <version>").append(version).append("</version>\n");
+        }
+        pom.append("  <packaging>").append(packaging).append("</packaging>\n")
+                .append("  <name>").append(artifactId).append("</name>\n")
+                .append("  <dependencies>\n");
+        for (int i = 0; i < dependencies; i++) {
+            pom.append("    <dependency>\n")
+                    .append("      <groupId>org.example.dep").append(i).append("</groupId>\n")
+                    .append("      <artifactId>dep-").append(i).append("</artifactId>\n")
+                    .append("      <version>2.").append(i).append("</version>\n")
+                    .append("    </dependency>\n");
+        }
+        pom.append("  </dependencies>\n")
+                .append("  <build>\n")
+                .append("    <plugins>\n")
+                .append("      <plugin>\n")
+                .append("        <artifactId>maven-compiler-plugin</artifactId>\n")
+                .append("        <configuration><release>11</release></configuration>\n")
+                .append("      </plugin>\n")
+                .append("    </plugins>\n")
+                .append("  </build>\n")
+                .append("</project>\n");
+        return pom.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void writeJar(Path file, String groupId, String artifactId, Random random) throws IOException {
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(file))) {
+            int entries = Math.max(entriesPerJar, 1);
+            int entrySize = Math.max(jarSizeKb * 1024 / entries, 1);
+            String packageName = "com/example/" + artifactId.replace('-', '_') + "/";
+            for (int i = 0; i < entries; i++) {
+                putEntry(jar, packageName + "C" + i + ".class");
+                writeRandom(jar, entrySize, random);
+                jar.closeEntry();
+            }
+            String base = "META-INF/maven/" + groupId + "/" + artifactId + "/";
+            putEntry(jar, base + "pom.xml");
+            jar.write(pom(groupId, artifactId, VERSION, "jar", 10, false));
+            jar.closeEntry();
+            putEntry(jar, base + "pom.properties");
+            jar.write(("groupId=" + groupId + "\nartifactId=" + artifactId + "\nversion=" + VERSION + "\n")
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            jar.closeEntry();
+        }
+    }
+
+    private void writeZip(Path file, Random random) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            putEntry(zip, "content.bin");
+            writeRandom(zip, jarSizeKb * 1024, random);
+            zip.closeEntry();
+        }
+    }
+
+    private static void putEntry(ZipOutputStream zip, String name) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(ENTRY_TIME);
+        zip.putNextEntry(entry);
+    }
+
+    private static void writeRandom(Path file, int size, Random random) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            writeRandom(out, size, random);
+        }
+    }
+
+    private static void writeRandom(OutputStream out, int size, Random random) throws IOException {
+        byte[] buffer = new byte[Math.min(Math.max(size, 1), 8192)];
+        for (int written = 0; written < size; written += buffer.length) {
+            random.nextBytes(buffer);
+            out.write(buffer, 0, Math.min(buffer.length, size - written));
+        }
+    }
+
+    static class Stats {
+        int jars;
+        int zips;
+        int poms;
+        int corruptJars;
+
+        @Override
+        public String toString() {
+            return String.format("%d jars, %d zips, %d poms, %d corrupted jars", jars, zips, poms, corruptJars);
+        }
+    }
+}
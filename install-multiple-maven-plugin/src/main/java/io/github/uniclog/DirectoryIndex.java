@@ -0,0 +1,202 @@
+package io.github.uniclog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+
+/**
+ * In-memory index of the files of one directory, deciding from their names alone how candidates are grouped:
+ * <ul>
+ *     <li>a POM that shares its base name with a jar or zip is installed from that binary's side; with a
+ *     {@linkplain #setPomCoordinates coordinate lookup}, so is a POM named otherwise whose
+ *     {@code <artifactId>-<version>} is the base name of one;</li>
+ *     <li>a jar or zip named {@code <main>-<classifier>} next to a main file {@code <main>.*}, for one of the
+ *     configured classifiers ({@code *} for any), is attached to that main file and installed with it.</li>
+ * </ul>
+ * Only candidates take part: a file left out by the include/exclude filters neither pairs nor is paired.
+ * Coordinates looked up are handed out with the groups, so that the POM need not be read again.
+ * Used for file system directories and for directories inside bundle archives alike. Not thread-safe.
+ *
+ * @param <T> how the caller refers to a file (a path, an archive entry...)
+ */
+class DirectoryIndex<T> {
+    private final List<String> classifiers;
+    private final Set<String> binaries = new HashSet<>();
+    private final Map<String, T> poms = new HashMap<>();
+    private final Map<T, PomCoordinates> pomCoordinates = new HashMap<>();
+    private final List<Candidate<T>> candidates = new ArrayList<>();
+    private Function<T, PomCoordinates> coordinateLookup;
+    private int pairedPoms;
+    private int attachedFiles;
+
+    DirectoryIndex(List<String> classifiers) {
+        this.classifiers = classifiers;
+    }
+
+    /**
+     * Reads the coordinates of a POM whose file name does not pair with a binary, or returns {@code null};
+     * only asked when the directory has binaries.
+     */
+    void setPomCoordinates(Function<T, PomCoordinates> coordinateLookup) {
+        this.coordinateLookup = coordinateLookup;
+    }
+
+    /**
+     * Records a regular file of the directory.
+     *
+     * @param packaging the packaging when the file is a candidate for installation, {@code null} otherwise
+     */
+    void add(String name, String packaging, T file) {
+        if (isNull(packaging)) return;
+        if (packaging.equals("jar") || packaging.equals("zip")) binaries.add(baseName(name));
+        if (packaging.equals("pom")) poms.put(baseName(name), file);
+        candidates.add(new Candidate<>(name, packaging, file));
+    }
+
+    boolean isEmpty() {
+        return candidates.isEmpty();
+    }
+
+    /**
+     * @return the main candidates in listing order, with their attachments and paired POM
+     */
+    List<Group<T>> groups() {
+        List<Candidate<T>> mains = new ArrayList<>();
+        Map<String, Candidate<T>> byBaseName = new HashMap<>();
+        for (Candidate<T> candidate : candidates) {
+            if (candidate.packaging.equals("pom") && isPaired(candidate)) {
+                pairedPoms++;
+                continue;
+            }
+            mains.add(candidate);
+            byBaseName.putIfAbsent(baseName(candidate.name), candidate);
+        }
+
+        Map<Candidate<T>, List<T>> attachments = new HashMap<>();
+        for (Iterator<Candidate<T>> iterator = mains.iterator(); iterator.hasNext(); ) {
+            Candidate<T> candidate = iterator.next();
+            Candidate<T> main = candidate.packaging.equals("pom") ? null : attachedTo(baseName(candidate.name), byBaseName);
+            if (isNull(main)) continue;
+
+            for (Candidate<T> next = main; !isNull(next); next = attachedTo(baseName(next.name), byBaseName)) {
+                main = next;
+            }
+            attachments.computeIfAbsent(main, key -> new ArrayList<>()).add(candidate.file);
+            attachedFiles++;
+            iterator.remove();
+        }
+
+        List<Group<T>> groups = new ArrayList<>(mains.size());
+        for (Candidate<T> main : mains) {
+            T pom = main.packaging.equals("pom") ? null : poms.get(baseName(main.name));
+            groups.add(new Group<>(main.file, main.packaging, attachments.getOrDefault(main, List.of()), pom,
+                    pomCoordinates.get(isNull(pom) ? main.file : pom)));
+        }
+        candidates.clear();
+        pomCoordinates.clear();
+        return groups;
+    }
+
+    int getPairedPoms() {
+        return pairedPoms;
+    }
+
+    int getAttachedFiles() {
+        return attachedFiles;
+    }
+
+    private boolean isPaired(Candidate<T> pom) {
+        if (binaries.contains(baseName(pom.name))) return true;
+        if (isNull(coordinateLookup) || binaries.isEmpty()) return false;
+        PomCoordinates coordinates = coordinateLookup.apply(pom.file);
+        if (isNull(coordinates)) return false;
+        pomCoordinates.put(pom.file, coordinates);
+        String baseName = coordinates.getArtifactId() + "-" + coordinates.getVersion();
+        if (!binaries.contains(baseName)) return false;
+        poms.putIfAbsent(baseName, pom.file);
+        return true;
+    }
+
+    private Candidate<T> attachedTo(String baseName, Map<String, Candidate<T>> byBaseName) {
+        for (String classifier : classifiers) {
+            if (classifier.equals("*")) {
+                for (int i = baseName.lastIndexOf('-'); i > 0; i = baseName.lastIndexOf('-', i - 1)) {
+                    Candidate<T> main = byBaseName.get(baseName.substring(0, i));
+                    if (!isNull(main)) return main;
+                }
+            } else if (baseName.endsWith("-" + classifier)) {
+                Candidate<T> main = byBaseName.get(baseName.substring(0, baseName.length() - classifier.length() - 1));
+                if (!isNull(main)) return main;
+            }
+        }
+        return null;
+    }
+
+    private static String baseName(String name) {
+        return name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name;
+    }
+
+    private static class Candidate<T> {
+        private final String name;
+        private final String packaging;
+        private final T file;
+
+        Candidate(String name, String packaging, T file) {
+            this.name = name;
+            this.packaging = packaging;
+            this.file = file;
+        }
+    }
+
+    /**
+     * A main candidate with the files installed together with it.
+     */
+    static class Group<T> {
+        private final T main;
+        private final String packaging;
+        private final List<T> attachments;
+        private final T pom;
+        private final PomCoordinates pomCoordinates;
+
+        Group(T main, String packaging, List<T> attachments, T pom, PomCoordinates pomCoordinates) {
+            this.main = main;
+            this.packaging = packaging;
+            this.attachments = attachments;
+            this.pom = pom;
+            this.pomCoordinates = pomCoordinates;
+        }
+
+        T getMain() {
+            return main;
+        }
+
+        String getPackaging() {
+            return packaging;
+        }
+
+        List<T> getAttachments() {
+            return attachments;
+        }
+
+        /**
+         * @return the POM paired with a binary main file, by base name or by coordinates, or {@code null}
+         */
+        T getPom() {
+            return pom;
+        }
+
+        /**
+         * @return the coordinates already looked up for the POM (the main file itself when a POM), or {@code null}
+         */
+        PomCoordinates getPomCoordinates() {
+            return pomCoordinates;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Discovery stage: finds jar, zip and pom files in a directory, optionally recursing into subdirectories.
+ * Each directory is listed with a one-level {@link Files#walkFileTree}, which hands over the attributes it already
+ * read, so no extra stat is needed per entry. Candidates are passed to the sink as soon as their directory has been
+ * listed, before any of its subdirectories is walked, so resolution starts while discovery goes on.
+ * <p>
+ * Include/exclude filters are applied during the walk; excluded directories are never listed.
+ * <p>
+ * The listing feeds a {@link DirectoryIndex} that pairs POMs with their binaries and groups classifier attachments
+ * with their main file, from the file names; a POM is only read when its name does not pair with a binary of
+ * its directory. The coordinates read then travel with the candidate, and the POM paired with a binary is handed
+ * over with it, so the resolver does not scan the same POM again.
+ * <p>
+ * With a parallelism above one, subdirectories are walked as fork/join tasks instead, so several workers list
+ * directories at once and feed the (then thread-safe) sink concurrently.
+ */
+class DirectoryScanner {
+    private final boolean recursive;
+    private final Log log;
+    private final AtomicInteger directories = new AtomicInteger();
+    private final AtomicInteger candidates = new AtomicInteger();
+    private final AtomicInteger prunedDirectories = new AtomicInteger();
+    private final AtomicInteger pairedPoms = new AtomicInteger();
+    private final AtomicInteger attachedFiles = new AtomicInteger();
+    private final AtomicLong walkNanos = new AtomicLong();
+    private int parallelism = 1;
+    private PathFilter filter = PathFilter.ALL;
+    private List<String> classifiers = List.of();
+
+    DirectoryScanner(boolean recursive, Log log) {
+        this.recursive = recursive;
+        this.log = log;
+    }
+
+    void setParallelism(int parallelism) {
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    void setFilter(PathFilter filter) {
+        this.filter = filter;
+    }
+
+    void setClassifiers(List<String> classifiers) {
+        this.classifiers = isNull(classifiers) ? List.of() : classifiers;
+    }
+
+    void scan(File dir, CandidateSink sink) throws MojoExecutionException {
+        if (parallelism > 1) {
+            scanParallel(dir, sink);
+            return;
+        }
+        var visitor = new CandidateVisitor(dir.toPath(), sink);
+        long start = System.nanoTime();
+        try {
+            visitor.walk();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error scanning " + dir, e);
+        } finally {
+            walkNanos.addAndGet(System.nanoTime() - start - visitor.sinkNanos);
+        }
+        if (!isNull(visitor.failure)) {
+            throw visitor.failure;
+        }
+    }
+
+    private void scanParallel(File dir, CandidateSink sink) throws MojoExecutionException {
+        var walk = new ParallelWalk(dir.toPath(), sink);
+        var pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            Path root = dir.toPath();
+            walk.visited.add(directoryKey(root, Files.readAttributes(root, BasicFileAttributes.class)));
+            pool.invoke(walk.new DirectoryTask(root));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error scanning " + dir, e);
+        } finally {
+            pool.shutdown();
+            walkNanos.addAndGet(System.nanoTime() - start);
+        }
+        if (!isNull(walk.failure.get())) {
+            throw walk.failure.get();
+        }
+    }
+
+    /**
+     * @return the POM files a scan of {@code dir} lists, whether paired with a binary or not, without counting or
+     * handing over anything
+     */
+    List<File> listPoms(File dir) throws IOException {
+        Path root = dir.toPath();
+        List<File> poms = new ArrayList<>();
+        Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), recursive ? Integer.MAX_VALUE : 1,
+                new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attrs) {
+                        return filter.excludesDirectory(relativePath(root, directory))
+                                ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if ("pom".equals(packagingOf(root, file, attrs))) poms.add(file.toFile());
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+        return poms;
+    }
+
+    static String packagingOf(String name) {
+        if (name.endsWith(".jar")) return "jar";
+        if (name.endsWith(".zip")) return "zip";
+        if (name.endsWith(".pom")) return "pom";
+        return null;
+    }
+
+    /**
+     * Identifies a directory across the symbolic links that lead to it.
+     */
+    private static Object directoryKey(Path dir, BasicFileAttributes attrs) throws IOException {
+        return isNull(attrs.fileKey()) ? dir.toRealPath() : attrs.fileKey();
+    }
+
+    private static String relativePath(Path root, Path path) {
+        return root.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private String packagingOf(Path root, Path file, BasicFileAttributes attrs) {
+        if (!attrs.isRegularFile()) return null;
+        String packaging = packagingOf(file.getFileName().toString());
+        return isNull(packaging) || !filter.includesFile(relativePath(root, file)) ? null : packaging;
+    }
+
+    private boolean isPruned(Path root, Path dir) {
+        if (!filter.excludesDirectory(relativePath(root, dir))) return false;
+        prunedDirectories.incrementAndGet();
+        log.debug("Excluded directory: " + dir);
+        return true;
+    }
+
+    String summary() {
+        return String.format("Discovery: %d candidates in %d directories (%d excluded, %d POMs paired with a binary, "
+                        + "%d attached files), walk %d ms%s",
+                candidates.get(), directories.get(), prunedDirectories.get(), pairedPoms.get(), attachedFiles.get(),
+                walkNanos.get() / 1_000_000,
+                parallelism > 1 ? " (" + parallelism + " walkers, including install back-pressure)" : "");
+    }
+
+    private void flush(DirectoryIndex<Path> index, CandidateSink sink) throws MojoExecutionException {
+        if (index.isEmpty()) return;
+        for (DirectoryIndex.Group<Path> group : index.groups()) {
+            List<File> attachments = new ArrayList<>(group.getAttachments().size());
+            group.getAttachments().forEach(attachment -> attachments.add(attachment.toFile()));
+            File pom = isNull(group.getPom()) ? null : group.getPom().toFile();
+            sink.accept(new DiscoveredFile(group.getMain().toFile(), group.getPackaging(), attachments, pom,
+                    group.getPomCoordinates()));
+        }
+        pairedPoms.addAndGet(index.getPairedPoms());
+        attachedFiles.addAndGet(index.getAttachedFiles());
+    }
+
+    private DirectoryIndex<Path> newIndex() {
+        var index = new DirectoryIndex<Path>(classifiers);
+        index.setPomCoordinates(DirectoryScanner::scanCoordinates);
+        return index;
+    }
+
+    private static PomCoordinates scanCoordinates(Path pom) {
+        try (InputStream in = Files.newInputStream(pom)) {
+            return PomCoordinatesReader.read(in);
+        } catch (IOException | XmlPullParserException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Walks depth first, one directory listing at a time: the entries of a directory are visited as files (its
+     * subdirectories included), its groups flushed, and only then are its subdirectories listed in turn.
+     */
+    private class CandidateVisitor extends SimpleFileVisitor<Path> {
+        private final Path root;
+        private final CandidateSink sink;
+        private final Deque<Path> pending = new ArrayDeque<>();
+        private final List<Path> subdirectories = new ArrayList<>();
+        private final Set<Object> visited = new HashSet<>();
+        private DirectoryIndex<Path> index;
+        private long sinkNanos;
+        private MojoExecutionException failure;
+
+        CandidateVisitor(Path root, CandidateSink sink) {
+            this.root = root;
+            this.sink = sink;
+        }
+
+        void walk() throws IOException {
+            pending.push(root);
+            while (!pending.isEmpty() && isNull(failure)) {
+                Files.walkFileTree(pending.pop(), EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1, this);
+                for (int i = subdirectories.size() - 1; i >= 0; i--) {
+                    pending.push(subdirectories.get(i));
+                }
+                subdirectories.clear();
+            }
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+            if (!visited.add(directoryKey(dir, attrs))) return FileVisitResult.SKIP_SUBTREE;
+            directories.incrementAndGet();
+            index = newIndex();
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (attrs.isDirectory()) {
+                if (recursive && !isPruned(root, file)) subdirectories.add(file);
+                return FileVisitResult.CONTINUE;
+            }
+            String packaging = packagingOf(root, file, attrs);
+            if (!isNull(packaging)) candidates.incrementAndGet();
+            if (!isNull(index)) {
+                if (attrs.isRegularFile()) index.add(file.getFileName().toString(), packaging, file);
+                return FileVisitResult.CONTINUE;
+            }
+            return isNull(packaging) ? FileVisitResult.CONTINUE
+                    : accept(() -> sink.accept(new DiscoveredFile(file.toFile(), packaging, List.of())));
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+            DirectoryIndex<Path> listed = index;
+            index = null;
+            if (!isNull(e)) throw e;
+            return accept(() -> flush(listed, sink));
+        }
+
+        private FileVisitResult accept(SinkCall call) {
+            long start = System.nanoTime();
+            try {
+                call.run();
+            } catch (MojoExecutionException e) {
+                failure = e;
+                return FileVisitResult.TERMINATE;
+            } finally {
+                sinkNanos += System.nanoTime() - start;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            log.warn("Unable to read " + file + ": " + e);
+            return FileVisitResult.CONTINUE;
+        }
+    }
+
+    private interface SinkCall {
+        void run() throws MojoExecutionException;
+    }
+
+    private class ParallelWalk {
+        private final Path root;
+        private final CandidateSink sink;
+        private final Set<Object> visited = ConcurrentHashMap.newKeySet();
+        private final AtomicReference<MojoExecutionException> failure = new AtomicReference<>();
+
+        ParallelWalk(Path root, CandidateSink sink) {
+            this.root = root;
+            this.sink = sink;
+        }
+
+        private class DirectoryTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final Path dir;
+
+            DirectoryTask(Path dir) {
+                this.dir = dir;
+            }
+
+            @Override
+            protected void compute() {
+                directories.incrementAndGet();
+                List<DirectoryTask> subdirectories = new ArrayList<>();
+                DirectoryIndex<Path> index = newIndex();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                    for (Path entry : entries) {
+                        if (!isNull(failure.get())) return;
+                        visit(entry, index, subdirectories);
+                    }
+                } catch (IOException e) {
+                    log.warn("Unable to read " + dir + ": " + e);
+                }
+                try {
+                    flush(index, sink);
+                } catch (MojoExecutionException e) {
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+                invokeAll(subdirectories);
+            }
+
+            private void visit(Path entry, DirectoryIndex<Path> index, List<DirectoryTask> subdirectories) {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                    if (attrs.isDirectory()) {
+                        if (recursive && !isPruned(root, entry) && visited.add(directoryKey(entry, attrs))) {
+                            subdirectories.add(new DirectoryTask(entry));
+                        }
+                        return;
+                    }
+                    String packaging = packagingOf(root, entry, attrs);
+                    if (!isNull(packaging)) candidates.incrementAndGet();
+                    if (attrs.isRegularFile()) index.add(entry.getFileName().toString(), packaging, entry);
+                } catch (IOException e) {
+                    log.warn("Unable to read " + entry + ": " + e);
+                }
+            }
+        }
+    }
+}
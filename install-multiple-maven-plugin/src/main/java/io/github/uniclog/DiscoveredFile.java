@@ -0,0 +1,67 @@
+package io.github.uniclog;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A file found during discovery, with its packaging ({@code jar}, {@code zip} or {@code pom}), the attached files
+ * (classifiers) found next to it and, for a binary, the POM discovery paired with it.
+ */
+class DiscoveredFile {
+    private final File file;
+    private final String packaging;
+    private final List<File> attachments;
+    private final File pom;
+    private final PomCoordinates pomCoordinates;
+
+    DiscoveredFile(File file, String packaging, List<File> attachments) {
+        this(file, packaging, attachments, null, null);
+    }
+
+    /**
+     * @param pom            the POM paired with a binary, or {@code null} to look for {@code <base name>.pom}
+     * @param pomCoordinates the coordinates discovery already scanned from the POM (the file itself when a POM),
+     *                       or {@code null}
+     */
+    DiscoveredFile(File file, String packaging, List<File> attachments, File pom, PomCoordinates pomCoordinates) {
+        this.file = file;
+        this.packaging = packaging;
+        this.attachments = attachments;
+        this.pom = pom;
+        this.pomCoordinates = pomCoordinates;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    String getPackaging() {
+        return packaging;
+    }
+
+    List<File> getAttachments() {
+        return attachments;
+    }
+
+    File getPom() {
+        return pom;
+    }
+
+    PomCoordinates getPomCoordinates() {
+        return pomCoordinates;
+    }
+
+    /**
+     * @return the file, its attachments and its paired POM: what an earlier install must have covered to be skipped
+     */
+    List<File> getMembers() {
+        List<File> members = new ArrayList<>(attachments.size() + 2);
+        members.add(file);
+        members.addAll(attachments);
+        if (!isNull(pom)) members.add(pom);
+        return members;
+    }
+}
@@ -0,0 +1,333 @@
+package io.github.uniclog;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Effective coordinates of POMs that inherit from a parent or use {@code ${...}} expressions, such as the
+ * {@code ${revision}} of CI-friendly builds. Properties are inherited along the parent chain and user properties
+ * ({@code -Drevision=...}) take precedence, as in Maven. Parents are looked up through {@code <relativePath>},
+ * among the {@code .pom} files of the input tree and in the target repository, and kept in a GAV-keyed cache
+ * so that each parent is read once however many children reference it. A resolved input POM only enters the cache
+ * when a child could find it as its parent, so the cache grows with the parents, not with the input. Thread-safe:
+ * a parent being read by another thread is waited for, unless that thread is itself waiting for one this thread is
+ * reading, which only happens when the parent chain has a cycle.
+ */
+class EffectiveModels {
+    private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]+)}");
+    private static final int MAX_INTERPOLATION_PASSES = 10;
+
+    private final PomSource inputPomSource;
+    private final Function<Artifact, File> repositoryPoms;
+    private final Properties userProperties;
+    private final Log log;
+    private final ConcurrentMap<String, CompletableFuture<EffectiveModel>> models = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Thread> readers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Thread, String> waiting = new ConcurrentHashMap<>();
+    private volatile Map<String, List<File>> inputPoms;
+    private final AtomicInteger relativePathParents = new AtomicInteger();
+    private final AtomicInteger inputTreeParents = new AtomicInteger();
+    private final AtomicInteger repositoryParents = new AtomicInteger();
+    private final AtomicInteger missingParents = new AtomicInteger();
+    private final AtomicInteger cacheHits = new AtomicInteger();
+
+    /**
+     * The {@code .pom} files of the input, as discovery lists them.
+     */
+    interface PomSource {
+        List<File> list() throws IOException;
+    }
+
+    /**
+     * @param inputPomSource the input files searched for parent POMs, listed on the first lookup, or {@code null}
+     * @param repositoryPoms maps a POM artifact to its file in the target repository, or {@code null}
+     */
+    EffectiveModels(PomSource inputPomSource, Function<Artifact, File> repositoryPoms,
+                    Properties userProperties, Log log) {
+        this.inputPomSource = inputPomSource;
+        this.repositoryPoms = repositoryPoms;
+        this.userProperties = userProperties;
+        this.log = log;
+    }
+
+    /**
+     * @param pomFile the file the model was read from, {@code null} for a POM embedded in a jar
+     * @return the interpolated coordinates; callers check {@link PomCoordinates#isComplete()} and
+     * {@link PomCoordinates#hasExpressions()} for what could not be resolved
+     */
+    PomCoordinates resolve(Model model, File pomFile) {
+        EffectiveModel effective = build(model, pomFile, new HashSet<>());
+        PomCoordinates coordinates = effective.coordinates;
+        if (coordinates.isComplete() && !coordinates.hasExpressions() && isParentCandidate(coordinates, pomFile)) {
+            models.putIfAbsent(key(coordinates.getGroupId(), coordinates.getArtifactId(), coordinates.getVersion()),
+                    CompletableFuture.completedFuture(effective));
+        }
+        return coordinates;
+    }
+
+    /**
+     * A parent has {@code pom} packaging, and the input tree lookup only finds it as {@code artifactId-version.pom}.
+     * Other POMs, embedded ones included, can only be reached through a {@code <relativePath>}, which reads and
+     * caches them on the first lookup.
+     */
+    private static boolean isParentCandidate(PomCoordinates coordinates, File pomFile) {
+        return "pom".equals(coordinates.getPackaging()) && !isNull(pomFile)
+                && pomFile.getName().equals(coordinates.getArtifactId() + "-" + coordinates.getVersion() + ".pom");
+    }
+
+    private EffectiveModel build(Model model, File pomFile, Set<String> chain) {
+        Properties own = model.getProperties();
+        Parent parentElement = model.getParent();
+        String parentGroupId = null;
+        String parentArtifactId = null;
+        String parentVersion = null;
+        EffectiveModel parent = null;
+        if (!isNull(parentElement)) {
+            Map<String, String> values = values(own, Map.of());
+            parentGroupId = interpolate(parentElement.getGroupId(), values);
+            parentArtifactId = interpolate(parentElement.getArtifactId(), values);
+            parentVersion = interpolate(parentElement.getVersion(), values);
+            parent = findParent(parentGroupId, parentArtifactId, parentVersion, parentElement.getRelativePath(),
+                    pomFile, chain);
+        }
+
+        Properties properties = new Properties();
+        if (!isNull(parent)) properties.putAll(parent.properties);
+        properties.putAll(own);
+
+        String groupId = isNull(model.getGroupId()) ? parentGroupId : model.getGroupId();
+        String version = isNull(model.getVersion()) ? parentVersion : model.getVersion();
+        String packaging = isNull(model.getPackaging()) ? "jar" : model.getPackaging();
+        Map<String, String> builtins = new HashMap<>();
+        for (String prefix : new String[]{"project.", "pom."}) {
+            putIfNotNull(builtins, prefix + "groupId", groupId);
+            putIfNotNull(builtins, prefix + "artifactId", model.getArtifactId());
+            putIfNotNull(builtins, prefix + "version", version);
+            putIfNotNull(builtins, prefix + "packaging", packaging);
+        }
+        putIfNotNull(builtins, "project.parent.groupId", parentGroupId);
+        putIfNotNull(builtins, "project.parent.artifactId", parentArtifactId);
+        putIfNotNull(builtins, "project.parent.version", parentVersion);
+
+        Map<String, String> values = values(properties, builtins);
+        return new EffectiveModel(new PomCoordinates(interpolate(groupId, values),
+                interpolate(model.getArtifactId(), values), interpolate(version, values),
+                interpolate(packaging, values), parentGroupId, parentArtifactId, parentVersion), properties);
+    }
+
+    private EffectiveModel findParent(String groupId, String artifactId, String version, String relativePath,
+                                      File pomFile, Set<String> chain) {
+        if (isUnresolved(groupId) || isUnresolved(artifactId) || isUnresolved(version)) return null;
+        String key = key(groupId, artifactId, version);
+        if (!chain.add(key)) {
+            log.warn("Cycle in parent POM chain: " + chain);
+            return null;
+        }
+
+        CompletableFuture<EffectiveModel> created = new CompletableFuture<>();
+        CompletableFuture<EffectiveModel> existing = models.putIfAbsent(key, created);
+        if (!isNull(existing)) {
+            cacheHits.incrementAndGet();
+            return await(key, existing);
+        }
+        readers.put(key, Thread.currentThread());
+        EffectiveModel parent = null;
+        try {
+            File parentFile = locate(groupId, artifactId, version, relativePath, pomFile);
+            Model parentModel = isNull(parentFile) ? null : read(parentFile);
+            if (isNull(parentModel)) {
+                missingParents.incrementAndGet();
+                log.debug("Parent POM not found: " + key);
+            } else {
+                parent = build(parentModel, parentFile, chain);
+            }
+            return parent;
+        } finally {
+            created.complete(parent);
+            readers.remove(key);
+        }
+    }
+
+    /**
+     * Waits for a parent another thread is reading. Before blocking, follows what the reading thread is itself
+     * waiting for: reaching this thread means the threads would wait for each other forever.
+     */
+    private EffectiveModel await(String key, CompletableFuture<EffectiveModel> model) {
+        if (model.isDone()) return model.join();
+        Thread current = Thread.currentThread();
+        waiting.put(current, key);
+        try {
+            Set<String> visited = new HashSet<>();
+            for (String next = key; !isNull(next) && visited.add(next); ) {
+                Thread reader = readers.get(next);
+                if (isNull(reader)) break;
+                if (reader == current) {
+                    log.warn("Cycle in parent POM chain through " + key);
+                    return null;
+                }
+                next = waiting.get(reader);
+            }
+            return model.join();
+        } finally {
+            waiting.remove(current);
+        }
+    }
+
+    private File locate(String groupId, String artifactId, String version, String relativePath, File pomFile) {
+        if (!isNull(pomFile) && !isNull(relativePath) && !relativePath.isBlank()) {
+            File file = new File(pomFile.getAbsoluteFile().getParentFile(), relativePath);
+            if (file.isDirectory()) file = new File(file, "pom.xml");
+            if (file.isFile() && matches(file, groupId, artifactId, version)) {
+                relativePathParents.incrementAndGet();
+                return file;
+            }
+        }
+        for (File file : inputPoms().getOrDefault(artifactId + "-" + version + ".pom", List.of())) {
+            if (matches(file, groupId, artifactId, version)) {
+                inputTreeParents.incrementAndGet();
+                return file;
+            }
+        }
+        if (!isNull(repositoryPoms)) {
+            File file = repositoryPoms.apply(new DefaultArtifact(groupId, artifactId, "pom", version));
+            if (!isNull(file) && file.isFile()) {
+                repositoryParents.incrementAndGet();
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(File file, String groupId, String artifactId, String version) {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            PomCoordinates coordinates = PomCoordinatesReader.read(in);
+            return artifactId.equals(coordinates.getArtifactId())
+                    && (isUnresolved(coordinates.getGroupId()) || groupId.equals(coordinates.getGroupId()))
+                    && (isUnresolved(coordinates.getVersion()) || version.equals(coordinates.getVersion()));
+        } catch (IOException | XmlPullParserException e) {
+            return false;
+        }
+    }
+
+    private Model read(File file) {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return new MavenXpp3Reader().read(in);
+        } catch (IOException | XmlPullParserException e) {
+            log.debug("Cannot read parent POM " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Map<String, List<File>> inputPoms() {
+        Map<String, List<File>> index = inputPoms;
+        if (isNull(index)) {
+            synchronized (this) {
+                if (isNull(inputPoms)) inputPoms = indexInputPoms();
+                index = inputPoms;
+            }
+        }
+        return index;
+    }
+
+    private Map<String, List<File>> indexInputPoms() {
+        Map<String, List<File>> index = new HashMap<>();
+        if (isNull(inputPomSource)) return index;
+        try {
+            for (File file : inputPomSource.list()) {
+                index.computeIfAbsent(file.getName(), name -> new ArrayList<>()).add(file);
+            }
+        } catch (IOException e) {
+            log.warn("Cannot list the input POMs for parent lookup: " + e.getMessage());
+        }
+        log.debug("Indexed " + index.size() + " input POM file names for parent lookup");
+        return Collections.unmodifiableMap(index);
+    }
+
+    private Map<String, String> values(Properties properties, Map<String, String> builtins) {
+        Map<String, String> values = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) values.put(name, properties.getProperty(name));
+        for (String name : userProperties.stringPropertyNames()) values.put(name, userProperties.getProperty(name));
+        values.putAll(builtins);
+        return values;
+    }
+
+    private static String interpolate(String value, Map<String, String> values) {
+        if (isNull(value)) return null;
+        String result = value;
+        for (int pass = 0; pass < MAX_INTERPOLATION_PASSES && result.contains("${"); pass++) {
+            Matcher matcher = EXPRESSION.matcher(result);
+            StringBuilder interpolated = new StringBuilder();
+            while (matcher.find()) {
+                String replacement = lookup(matcher.group(1), values);
+                matcher.appendReplacement(interpolated, Matcher.quoteReplacement(
+                        isNull(replacement) ? matcher.group() : replacement));
+            }
+            matcher.appendTail(interpolated);
+            if (interpolated.toString().equals(result)) break;
+            result = interpolated.toString();
+        }
+        return result.trim();
+    }
+
+    private static String lookup(String name, Map<String, String> values) {
+        String value = values.get(name);
+        if (!isNull(value)) return value;
+        return name.startsWith("env.") ? System.getenv(name.substring(4)) : System.getProperty(name);
+    }
+
+    private static void putIfNotNull(Map<String, String> values, String name, String value) {
+        if (!isNull(value)) values.put(name, value);
+    }
+
+    private static boolean isUnresolved(String value) {
+        return isNull(value) || value.contains("${");
+    }
+
+    private static String key(String groupId, String artifactId, String version) {
+        return groupId + ":" + artifactId + ":" + version;
+    }
+
+    String summary() {
+        return String.format("Parent POMs read: %d by relativePath, %d from input tree, %d from repository, "
+                        + "%d not found, %d cache hits",
+                relativePathParents.get(), inputTreeParents.get(), repositoryParents.get(),
+                missingParents.get(), cacheHits.get());
+    }
+
+    private static class EffectiveModel {
+        private final PomCoordinates coordinates;
+        private final Properties properties;
+
+        EffectiveModel(PomCoordinates coordinates, Properties properties) {
+            this.coordinates = coordinates;
+            this.properties = properties;
+        }
+    }
+}
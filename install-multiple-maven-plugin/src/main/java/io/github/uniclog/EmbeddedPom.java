@@ -0,0 +1,44 @@
+package io.github.uniclog;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * A POM embedded in a jar, with the coordinates of the {@code pom.properties} written next to it when present.
+ */
+class EmbeddedPom {
+    private final byte[] pom;
+    private final PomCoordinates properties;
+
+    EmbeddedPom(byte[] pom, PomCoordinates properties) {
+        this.pom = pom;
+        this.properties = properties;
+    }
+
+    byte[] getPom() {
+        return pom;
+    }
+
+    /**
+     * @return the coordinates from {@code pom.properties}, or {@code null} when missing or incomplete
+     */
+    PomCoordinates getPropertiesCoordinates() {
+        return properties;
+    }
+
+    /**
+     * @return the coordinates of a {@code pom.properties}, or {@code null} when unreadable or incomplete
+     */
+    static PomCoordinates readProperties(byte[] content) {
+        Properties properties = new Properties();
+        try {
+            properties.load(new ByteArrayInputStream(content));
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+        PomCoordinates coordinates = new PomCoordinates(properties.getProperty("groupId"),
+                properties.getProperty("artifactId"), properties.getProperty("version"), null, null, null, null);
+        return coordinates.isComplete() ? coordinates : null;
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.uniclog;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Chooses the POM of a jar that embeds several, as shaded jars do with the POMs of every bundled dependency.
+ * Rules:
+ * <ul>
+ *     <li>{@code filename} (default): the POM whose {@code artifactId-version} (from {@code pom.properties}) starts
+ *     the jar file name, else the one with the longest matching {@code artifactId-} prefix;</li>
+ *     <li>{@code first}: the first POM in the archive, the behaviour before selection existed;</li>
+ *     <li>{@code <groupId>:<artifactId>} with {@code *} wildcards: the POMs with matching coordinates,
+ *     narrowed by file name when more than one matches.</li>
+ * </ul>
+ * A jar with a single embedded POM is never rejected by the {@code filename} rule; an ambiguous or unmatched
+ * jar gets no embedded POM at all rather than the coordinates of an arbitrary dependency.
+ */
+class EmbeddedPomSelector {
+    static final EmbeddedPomSelector FILE_NAME = new EmbeddedPomSelector("filename", null);
+    static final EmbeddedPomSelector FIRST = new EmbeddedPomSelector("first", null);
+
+    private final String rule;
+    private final Pattern coordinates;
+
+    private EmbeddedPomSelector(String rule, Pattern coordinates) {
+        this.rule = rule;
+        this.coordinates = coordinates;
+    }
+
+    static EmbeddedPomSelector compile(String rule) {
+        if (isNull(rule) || rule.isBlank() || rule.trim().equals(FILE_NAME.rule)) return FILE_NAME;
+        if (rule.trim().equals(FIRST.rule)) return FIRST;
+        String[] parts = rule.trim().split(":");
+        if (parts.length != 2 || parts[0].isEmpty() || parts[1].isEmpty()) {
+            throw new IllegalArgumentException("expected filename, first or <groupId>:<artifactId>, got '" + rule + "'");
+        }
+        return new EmbeddedPomSelector(rule.trim(), Pattern.compile(globToRegex(parts[0]) + ":" + globToRegex(parts[1])));
+    }
+
+    /**
+     * @return the index of the selected candidate, or {@code -1} when none is acceptable
+     */
+    int select(File jar, List<Candidate> candidates) {
+        if (candidates.isEmpty()) return -1;
+        if (this == FIRST) return 0;
+        if (isNull(coordinates)) {
+            return candidates.size() == 1 ? 0 : matchFileName(jar, candidates, allIndexes(candidates.size()));
+        }
+
+        List<Integer> matching = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            if (coordinates.matcher(candidate.groupId + ":" + candidate.artifactId).matches()) matching.add(i);
+        }
+        if (matching.size() <= 1) return matching.isEmpty() ? -1 : matching.get(0);
+        return matchFileName(jar, candidates, matching);
+    }
+
+    @Override
+    public String toString() {
+        return rule;
+    }
+
+    private static int matchFileName(File jar, List<Candidate> candidates, List<Integer> indexes) {
+        String baseName = jar.getName();
+        if (baseName.contains(".")) {
+            baseName = baseName.substring(0, baseName.lastIndexOf('.'));
+        }
+
+        int selected = longestPrefix(baseName, candidates, indexes, true);
+        return selected >= 0 ? selected : longestPrefix(baseName, candidates, indexes, false);
+    }
+
+    private static int longestPrefix(String baseName, List<Candidate> candidates, List<Integer> indexes,
+                                     boolean withVersion) {
+        int selected = -1;
+        int selectedLength = -1;
+        boolean ambiguous = false;
+        for (int index : indexes) {
+            Candidate candidate = candidates.get(index);
+            if (isNull(candidate.artifactId) || (withVersion && isNull(candidate.version))) continue;
+            String prefix = withVersion ? candidate.artifactId + "-" + candidate.version : candidate.artifactId;
+            if (!baseName.equals(prefix) && !baseName.startsWith(prefix + "-")) continue;
+
+            if (prefix.length() > selectedLength) {
+                selected = index;
+                selectedLength = prefix.length();
+                ambiguous = false;
+            } else if (prefix.length() == selectedLength) {
+                ambiguous = true;
+            }
+        }
+        return ambiguous ? -1 : selected;
+    }
+
+    private static List<Integer> allIndexes(int size) {
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) indexes.add(i);
+        return indexes;
+    }
+
+    private static String globToRegex(String glob) {
+        String[] parts = glob.split("\\*", -1);
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) regex.append(".*");
+            if (!parts[i].isEmpty()) regex.append(Pattern.quote(parts[i]));
+        }
+        return regex.toString();
+    }
+
+    /**
+     * An embedded POM directory: coordinates come from its {@code pom.properties}, else from the directory names.
+     */
+    static class Candidate {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+
+        Candidate(String groupId, String artifactId, String version) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+        }
+
+        @Override
+        public String toString() {
+            return groupId + ":" + artifactId + (isNull(version) ? "" : ":" + version);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package io.github.uniclog;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.util.artifact.SubArtifact;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Resolution stage: finds the POM of a discovered file, reads its coordinates and builds the artifacts to install.
+ * Thread-safe, called concurrently by the install pipeline workers. POMs that belong to a jar or zip of the same
+ * directory never get here: discovery pairs them by base name, or by coordinates when the names differ, and passes
+ * the paired POM along with the binary. Coordinates discovery already scanned to pair a POM are not read again.
+ */
+class FileResolver {
+    private final Log log;
+    private final AtomicInteger embeddedPoms = new AtomicInteger();
+    private final AtomicLong embeddedPomBytes = new AtomicLong();
+    private final AtomicInteger propertiesPoms = new AtomicInteger();
+    private final AtomicInteger fastPathPoms = new AtomicInteger();
+    private final AtomicInteger fullModelPoms = new AtomicInteger();
+
+    private EmbeddedPomSelector embeddedPomSelector = EmbeddedPomSelector.FILE_NAME;
+    private EffectiveModels effectiveModels;
+
+    FileResolver(Log log) {
+        this.log = log;
+        this.effectiveModels = new EffectiveModels(null, null, new Properties(), log);
+    }
+
+    void setEffectiveModels(EffectiveModels effectiveModels) {
+        this.effectiveModels = effectiveModels;
+    }
+
+    void setEmbeddedPomSelector(EmbeddedPomSelector embeddedPomSelector) {
+        this.embeddedPomSelector = embeddedPomSelector;
+    }
+
+    List<Artifact> resolve(DiscoveredFile discovered) throws MojoExecutionException {
+        File file = discovered.getFile();
+        String packaging = discovered.getPackaging();
+        File pomFile = file;
+        EmbeddedPom embeddedPom = null;
+        if (!packaging.equals("pom")) {
+            if (packaging.equals("jar")) {
+                embeddedPom = readingPomFromJarFile(file);
+            }
+            if (isNull(embeddedPom)) {
+                pomFile = isNull(discovered.getPom()) ? findPomForArtifact(file) : discovered.getPom();
+                if (isNull(pomFile)) {
+                    log.warn("POM file not found: " + file.getAbsolutePath());
+                    return Collections.emptyList();
+                }
+            }
+        }
+
+        PomCoordinates coordinates = isNull(embeddedPom)
+                ? readCoordinates(pomFile, discovered.getPomCoordinates())
+                : readCoordinates(embeddedPom, file);
+
+        List<Artifact> artifacts = new ArrayList<>();
+        Artifact artifact = null;
+
+        switch (packaging) {
+            case "jar": {
+                artifact = new DefaultArtifact(
+                        coordinates.getGroupId(),
+                        coordinates.getArtifactId(),
+                        "jar",
+                        coordinates.getVersion()
+                ).setFile(file);
+                artifacts.add(artifact);
+                break;
+            }
+            case "zip": {
+                artifact = new DefaultArtifact(
+                        coordinates.getGroupId(),
+                        coordinates.getArtifactId(),
+                        "zip",
+                        coordinates.getVersion()
+                ).setFile(file);
+                artifacts.add(artifact);
+                break;
+            }
+            case "pom": {
+                artifact = new DefaultArtifact(
+                        coordinates.getGroupId(),
+                        coordinates.getArtifactId(),
+                        "pom",
+                        coordinates.getVersion()
+                ).setFile(pomFile);
+                artifacts.add(artifact);
+                break;
+            }
+        }
+        if (!packaging.equals("pom") && artifact != null) {
+            Artifact pomArtifact = new SubArtifact(artifact, "", "pom");
+            artifacts.add(isNull(embeddedPom)
+                    ? pomArtifact.setFile(pomFile)
+                    : new InMemoryArtifact(pomArtifact, embeddedPom.getPom()));
+        }
+        if (artifact != null) {
+            for (File attachment : discovered.getAttachments()) {
+                artifacts.add(attach(artifact, file, attachment));
+            }
+        }
+        return artifacts;
+    }
+
+    /**
+     * {@code foo-1.0-sources.jar} next to {@code foo-1.0.jar} becomes the {@code sources} jar of the main artifact.
+     */
+    private Artifact attach(Artifact main, File mainFile, File attachment) {
+        String name = attachment.getName();
+        int extension = name.lastIndexOf('.');
+        String classifier = name.substring(baseNameLength(mainFile) + 1, extension);
+        return new SubArtifact(main, classifier, name.substring(extension + 1)).setFile(attachment);
+    }
+
+    private static int baseNameLength(File file) {
+        String name = file.getName();
+        return name.contains(".") ? name.lastIndexOf('.') : name.length();
+    }
+
+    private File findPomForArtifact(File file) {
+        String pomName = file.getName();
+        if (pomName.contains(".")) {
+            pomName = pomName.substring(0, pomName.lastIndexOf('.'));
+        }
+        File pom = new File(file.getParent(), pomName + ".pom");
+        return pom.exists() ? pom : null;
+    }
+
+    private EmbeddedPom readingPomFromJarFile(File file) {
+        try {
+            EmbeddedPom pom = JarPomReader.read(file, embeddedPomSelector);
+            if (isNull(pom)) {
+                log.warn("pom.xml not found in " + file.getName());
+                return null;
+            }
+            embeddedPoms.incrementAndGet();
+            embeddedPomBytes.addAndGet(pom.getPom().length);
+            log.debug("Loading pom.xml from " + file.getName());
+            return pom;
+        } catch (JarPomReader.AmbiguousPomException e) {
+            log.warn(e.getMessage());
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Coordinates from {@code pom.properties} need no XML parsing; the POM bytes are only kept for installation.
+     */
+    private PomCoordinates readCoordinates(EmbeddedPom embeddedPom, File jarFile) throws MojoExecutionException {
+        PomCoordinates properties = embeddedPom.getPropertiesCoordinates();
+        if (!isNull(properties)) {
+            propertiesPoms.incrementAndGet();
+            return properties;
+        }
+        return readCoordinates(embeddedPom.getPom(), jarFile);
+    }
+
+    private PomCoordinates readCoordinates(byte[] pom, File jarFile) throws MojoExecutionException {
+        try {
+            PomCoordinates coordinates = PomCoordinatesReader.read(new ByteArrayInputStream(pom));
+            if (coordinates.isComplete() && !coordinates.hasExpressions()) {
+                fastPathPoms.incrementAndGet();
+                return coordinates;
+            }
+        } catch (IOException | XmlPullParserException e) {
+            log.debug("Falling back to full POM reader for " + jarFile + ": " + e.getMessage());
+        }
+        return readCoordinates(readModel(pom, jarFile), null, jarFile);
+    }
+
+    /**
+     * @param scanned the coordinates discovery scanned from {@code pomFile} to pair it, or {@code null}
+     */
+    private PomCoordinates readCoordinates(File pomFile, PomCoordinates scanned) throws MojoExecutionException {
+        if (isNull(scanned)) return readCoordinates(pomFile);
+        if (scanned.isComplete() && !scanned.hasExpressions()) {
+            fastPathPoms.incrementAndGet();
+            return scanned;
+        }
+        return readCoordinates(readModel(pomFile), pomFile, pomFile);
+    }
+
+    private PomCoordinates readCoordinates(File pomFile) throws MojoExecutionException {
+        try (InputStream in = Files.newInputStream(pomFile.toPath())) {
+            PomCoordinates coordinates = PomCoordinatesReader.read(in);
+            if (coordinates.isComplete() && !coordinates.hasExpressions()) {
+                fastPathPoms.incrementAndGet();
+                return coordinates;
+            }
+        } catch (IOException | XmlPullParserException e) {
+            log.debug("Falling back to full POM reader for " + pomFile + ": " + e.getMessage());
+        }
+        return readCoordinates(readModel(pomFile), pomFile, pomFile);
+    }
+
+    private PomCoordinates readCoordinates(Model model, File pomFile, File source) throws MojoExecutionException {
+        fullModelPoms.incrementAndGet();
+        PomCoordinates coordinates = effectiveModels.resolve(model, pomFile);
+        if (!coordinates.isComplete()) {
+            throw new MojoExecutionException(
+                    "The artifact information is incomplete: 'groupId', 'artifactId', 'version', 'packaging' are required.");
+        }
+        if (coordinates.hasExpressions()) {
+            throw new MojoExecutionException("Unresolved expression in coordinates " + coordinates + " of " + source);
+        }
+        return coordinates;
+    }
+
+    private Model readModel(byte[] pom, File jarFile) throws MojoExecutionException {
+        try {
+            return new MavenXpp3Reader().read(new ByteArrayInputStream(pom));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error reading POM from " + jarFile, e);
+        } catch (XmlPullParserException e) {
+            throw new MojoExecutionException("Error parsing POM from " + jarFile, e);
+        }
+    }
+
+    private Model readModel(File pomFile) throws MojoExecutionException {
+        try (InputStream reader = Files.newInputStream(pomFile.toPath())) {
+            return new MavenXpp3Reader().read(reader);
+        } catch (FileNotFoundException e) {
+            throw new MojoExecutionException("File not found " + pomFile, e);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error reading POM " + pomFile, e);
+        } catch (XmlPullParserException e) {
+            throw new MojoExecutionException("Error parsing POM " + pomFile, e);
+        }
+    }
+
+    String summary(int spooledFiles) {
+        return String.format("Embedded POMs read in memory: %d (%d bytes), temp files avoided: %d, spooled at install: %d%n"
+                        + "Coordinates from pom.properties: %d, by coordinate scanner: %d, by full model reader: %d",
+                embeddedPoms.get(), embeddedPomBytes.get(), embeddedPoms.get(), spooledFiles,
+                propertiesPoms.get(), fastPathPoms.get(), fullModelPoms.get())
+                + System.lineSeparator() + effectiveModels.summary();
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.uniclog;
+
+import org.eclipse.aether.artifact.Artifact;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.isNull;
+
+/**
+ * On-disk record of files that were installed by previous runs.
+ * A file is considered unchanged when it and every file installed alongside it (e.g. its sibling POM)
+ * still have the recorded size and modification time (and content hash, when enabled),
+ * every file now grouped with it was installed alongside it (an attachment added since is not),
+ * and the installed artifact is still present in the local repository.
+ * <p>
+ * One tab-separated line per installed file: {@code gav, repository path, content hash, (path|size|mtime)...}.
+ */
+class FingerprintCache {
+    private static final String NO_HASH = "-";
+
+    private final Path cacheFile;
+    private final Path repositoryBase;
+    private final boolean hashContent;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger recorded = new AtomicInteger();
+
+    private FingerprintCache(Path cacheFile, Path repositoryBase, boolean hashContent) {
+        this.cacheFile = cacheFile;
+        this.repositoryBase = repositoryBase;
+        this.hashContent = hashContent;
+    }
+
+    static FingerprintCache load(File cacheFile, File repositoryBase, boolean hashContent) throws IOException {
+        var cache = new FingerprintCache(cacheFile.toPath(), repositoryBase.toPath(), hashContent);
+        if (!cacheFile.isFile()) return cache;
+
+        try (BufferedReader reader = Files.newBufferedReader(cache.cacheFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Entry entry = Entry.parse(line);
+                if (entry != null) {
+                    cache.entries.put(entry.sources.get(0).path, entry);
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @param members the files now grouped with {@code file}, itself included
+     */
+    boolean isUnchanged(File file, Collection<File> members) {
+        Entry entry = entries.get(file.getAbsolutePath());
+        if (isNull(entry)) return false;
+        for (File member : members) {
+            if (!entry.records(member)) return false;
+        }
+
+        try {
+            for (Fingerprint source : entry.sources) {
+                if (!source.equals(Fingerprint.of(Path.of(source.path)))) return false;
+            }
+            if (!Files.exists(repositoryBase.resolve(entry.repositoryPath))) return false;
+            if (hashContent && !entry.hash.equals(hash(file.toPath()))) return false;
+        } catch (IOException e) {
+            return false;
+        }
+        hits.incrementAndGet();
+        return true;
+    }
+
+    void record(ResolvedFile file, String repositoryPath) {
+        try {
+            List<Fingerprint> fingerprints = new ArrayList<>();
+            for (File source : file.getSourceFiles()) {
+                fingerprints.add(Fingerprint.of(source.toPath()));
+            }
+            Artifact main = file.getArtifacts().get(0);
+            String hash = hashContent ? hash(file.getSource().toPath()) : NO_HASH;
+            entries.put(file.getSource().getAbsolutePath(), new Entry(main.toString(), repositoryPath, hash, fingerprints));
+            recorded.incrementAndGet();
+        } catch (IOException e) {
+            entries.remove(file.getSource().getAbsolutePath());
+        }
+    }
+
+    void save() throws IOException {
+        Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), cacheFile.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Entry entry : entries.values()) {
+                writer.write(entry.format());
+                writer.newLine();
+            }
+        }
+        Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    String summary() {
+        return String.format("Fingerprint cache: %d unchanged files skipped, %d recorded, %d entries",
+                hits.get(), recorded.get(), entries.size());
+    }
+
+    private static String hash(Path file) throws IOException {
+        return Digests.hex(file, Digests.SHA_256);
+    }
+
+    private static class Entry {
+        private final String gav;
+        private final String repositoryPath;
+        private final String hash;
+        private final List<Fingerprint> sources;
+
+        Entry(String gav, String repositoryPath, String hash, List<Fingerprint> sources) {
+            this.gav = gav;
+            this.repositoryPath = repositoryPath;
+            this.hash = hash;
+            this.sources = sources;
+        }
+
+        boolean records(File file) {
+            String path = file.getAbsolutePath();
+            for (Fingerprint source : sources) {
+                if (source.path.equals(path)) return true;
+            }
+            return false;
+        }
+
+        static Entry parse(String line) {
+            String[] fields = line.split("\t");
+            if (fields.length < 4) return null;
+
+            List<Fingerprint> sources = new ArrayList<>();
+            for (int i = 3; i < fields.length; i++) {
+                Fingerprint fingerprint = Fingerprint.parse(fields[i]);
+                if (isNull(fingerprint)) return null;
+                sources.add(fingerprint);
+            }
+            return new Entry(fields[0], fields[1], fields[2], sources);
+        }
+
+        String format() {
+            StringBuilder line = new StringBuilder()
+                    .append(gav).append('\t')
+                    .append(repositoryPath).append('\t')
+                    .append(hash);
+            sources.forEach(source -> line.append('\t').append(source.format()));
+            return line.toString();
+        }
+    }
+
+    private static class Fingerprint {
+        private final String path;
+        private final long size;
+        private final long modified;
+
+        Fingerprint(String path, long size, long modified) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        static Fingerprint of(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new Fingerprint(file.toAbsolutePath().toString(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis());
+        }
+
+        static Fingerprint parse(String field) {
+            int modifiedAt = field.lastIndexOf('|');
+            int sizeAt = modifiedAt > 0 ? field.lastIndexOf('|', modifiedAt - 1) : -1;
+            if (sizeAt <= 0) return null;
+            try {
+                return new Fingerprint(field.substring(0, sizeAt),
+                        Long.parseLong(field.substring(sizeAt + 1, modifiedAt)),
+                        Long.parseLong(field.substring(modifiedAt + 1)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String format() {
+            return path + "|" + size + "|" + modified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Fingerprint)) return false;
+            Fingerprint other = (Fingerprint) o;
+            return path.equals(other.path) && size == other.size && modified == other.modified;
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode();
+        }
+    }
+}
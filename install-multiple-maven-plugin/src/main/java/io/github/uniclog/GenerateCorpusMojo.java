@@ -0,0 +1,57 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Generates a synthetic, reproducible artifact tree to load test {@code install-multiple}.
+ */
+@Mojo(name = "generate-corpus", requiresProject = false)
+public class GenerateCorpusMojo extends AbstractMojo {
+    @Parameter(property = "outputDirectory", required = true)
+    private File outputDirectory;
+    @Parameter(property = "artifacts", defaultValue = "1000")
+    private int artifacts = 1000;
+    @Parameter(property = "seed", defaultValue = "42")
+    private long seed = 42;
+    @Parameter(property = "jarSizeKb", defaultValue = "4")
+    private int jarSizeKb = 4;
+    @Parameter(property = "entriesPerJar", defaultValue = "10")
+    private int entriesPerJar = 10;
+    @Parameter(property = "depth", defaultValue = "2")
+    private int depth = 2;
+    @Parameter(property = "fanout", defaultValue = "10")
+    private int fanout = 10;
+    @Parameter(property = "zipPercent", defaultValue = "10")
+    private int zipPercent = 10;
+    @Parameter(property = "standalonePomPercent", defaultValue = "10")
+    private int standalonePomPercent = 10;
+    @Parameter(property = "corruptPercent", defaultValue = "1")
+    private int corruptPercent = 1;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        var generator = new CorpusGenerator(seed);
+        generator.setJarSizeKb(jarSizeKb);
+        generator.setEntriesPerJar(entriesPerJar);
+        generator.setDepth(depth);
+        generator.setFanout(fanout);
+        generator.setZipPercent(zipPercent);
+        generator.setStandalonePomPercent(standalonePomPercent);
+        generator.setCorruptPercent(corruptPercent);
+
+        long start = System.nanoTime();
+        try {
+            var stats = generator.generate(outputDirectory.toPath(), artifacts);
+            getLog().info(String.format("Generated %s in %s (%d ms)", stats, outputDirectory,
+                    (System.nanoTime() - start) / 1_000_000));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error generating corpus in " + outputDirectory, e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.uniclog;
+
+import org.eclipse.aether.artifact.AbstractArtifact;
+import org.eclipse.aether.artifact.Artifact;
+
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Artifact whose content is held in memory (e.g. a POM read from a JAR entry).
+ * It has no file until {@link ArtifactInstaller} spools it right before installation.
+ */
+class InMemoryArtifact extends AbstractArtifact {
+    private final Artifact delegate;
+    private final byte[] content;
+
+    InMemoryArtifact(Artifact delegate, byte[] content) {
+        this.delegate = delegate;
+        this.content = content;
+    }
+
+    byte[] getContent() {
+        return content;
+    }
+
+    @Override
+    public String getGroupId() {
+        return delegate.getGroupId();
+    }
+
+    @Override
+    public String getArtifactId() {
+        return delegate.getArtifactId();
+    }
+
+    @Override
+    public String getVersion() {
+        return delegate.getVersion();
+    }
+
+    @Override
+    public String getClassifier() {
+        return delegate.getClassifier();
+    }
+
+    @Override
+    public String getExtension() {
+        return delegate.getExtension();
+    }
+
+    @Override
+    public File getFile() {
+        return null;
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        return delegate.getProperties();
+    }
+}
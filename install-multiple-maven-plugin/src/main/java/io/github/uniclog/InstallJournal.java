@@ -0,0 +1,165 @@
+package io.github.uniclog;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Append-only record of the files installed by the current run, so that an interrupted run can be resumed.
+ * One line per installed file, written once its install request has returned:
+ * {@code gav, source path, other installed source paths...}. A file is only skipped on resume when every file now
+ * grouped with it is on its line, so an attachment added after the interrupted run is still installed.
+ * Lines are buffered and forced to disk every {@value #SYNC_RECORDS} records or {@value #SYNC_MILLIS} ms,
+ * whichever comes first; a line torn by a crash is ignored on replay, its file is simply installed again.
+ * <p>
+ * Only kept when asked for (resume, or an explicit journal file). A run that is not resumed starts a new journal,
+ * a run that completes removes it.
+ * Written from the install thread only; the skip-set is only read once replayed, by the discovery threads.
+ */
+class InstallJournal {
+    private static final String HEADER = "# install-multiple journal v2";
+    private static final int SYNC_RECORDS = 1000;
+    private static final long SYNC_MILLIS = 1000;
+
+    private final Path journalFile;
+    private final Map<String, Set<String>> installed = new HashMap<>();
+    private final StringBuilder pending = new StringBuilder();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private FileChannel channel;
+    private int pendingRecords;
+    private long lastSync = System.nanoTime();
+    private IOException failure;
+    private int replayed;
+    private int recorded;
+    private int syncs;
+
+    private InstallJournal(Path journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    /**
+     * @param resume replay an existing journal into the skip-set and append to it, instead of starting a new one
+     */
+    static InstallJournal open(File journalFile, boolean resume) throws IOException {
+        var journal = new InstallJournal(journalFile.toPath());
+        if (resume && journalFile.isFile()) {
+            journal.replay();
+        }
+        Files.createDirectories(journal.journalFile.toAbsolutePath().getParent());
+        journal.channel = resume
+                ? FileChannel.open(journal.journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                : FileChannel.open(journal.journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (journal.channel.size() == 0) {
+            journal.pending.append(HEADER).append('\n');
+        } else if (!journal.endsWithNewline()) {
+            journal.pending.append('\n');
+        }
+        journal.sync();
+        return journal;
+    }
+
+    private void replay() throws IOException {
+        boolean torn = !endsWithNewline();
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            while (!isNull(line)) {
+                String next = reader.readLine();
+                if (isNull(next) && torn) break;
+                String[] fields = line.split("\t");
+                if (!line.startsWith("#") && fields.length > 1 && !fields[0].isEmpty() && !fields[1].isEmpty()) {
+                    Set<String> sources = new HashSet<>(Arrays.asList(fields).subList(1, fields.length));
+                    if (isNull(installed.put(fields[1], sources))) replayed++;
+                }
+                line = next;
+            }
+        }
+    }
+
+    private boolean endsWithNewline() throws IOException {
+        try (FileChannel file = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            if (file.size() == 0) return true;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            file.read(last, file.size() - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    /**
+     * @param members the files now grouped with {@code file}, itself included
+     * @return whether a previous, interrupted run already installed the file and all of its members
+     */
+    boolean isInstalled(File file, Collection<File> members) {
+        Set<String> sources = installed.get(file.getAbsolutePath());
+        if (isNull(sources)) return false;
+        for (File member : members) {
+            if (!sources.contains(member.getAbsolutePath())) return false;
+        }
+        skipped.incrementAndGet();
+        return true;
+    }
+
+    void record(ResolvedFile file) {
+        if (!isNull(failure)) return;
+
+        pending.append(file.getArtifacts().get(0));
+        file.getSourceFiles().forEach(source -> pending.append('\t').append(source.getAbsolutePath()));
+        pending.append('\n');
+        recorded++;
+        if (++pendingRecords >= SYNC_RECORDS
+                || System.nanoTime() - lastSync >= TimeUnit.MILLISECONDS.toNanos(SYNC_MILLIS)) {
+            try {
+                sync();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    private void sync() throws IOException {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(pending.toString());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+        pending.setLength(0);
+        pendingRecords = 0;
+        lastSync = System.nanoTime();
+        syncs++;
+    }
+
+    /**
+     * Writes out the pending records, and removes the journal when the run completed.
+     */
+    void close(boolean completed) throws IOException {
+        try {
+            if (!isNull(failure)) throw failure;
+            if (pendingRecords > 0) sync();
+        } finally {
+            channel.close();
+        }
+        if (completed) {
+            Files.deleteIfExists(journalFile);
+        }
+    }
+
+    String summary() {
+        return String.format("Journal: %d installs recorded in %d syncs, %d files skipped of %d replayed",
+                recorded, syncs, skipped.get(), replayed);
+    }
+}
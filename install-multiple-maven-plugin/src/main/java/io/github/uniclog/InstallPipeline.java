@@ -0,0 +1,216 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.artifact.Artifact;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Staged install pipeline: discovery (caller thread) -> POM extraction and parsing (worker pool)
+ * -> install (single thread), connected by bounded queues.
+ * The number of files being extracted or parsed at once is bounded by {@code maxOpenFiles}.
+ * Failures are collected per file and reported in path order once all stages have drained.
+ * An unexpected error in the install stage aborts the pipeline: pending resolutions are dropped, the install queue
+ * is drained without installing, and discovery fails on its next submission instead of blocking.
+ * Files that leave the pipeline without being installed (nothing to install, failed, drained) are reported to the
+ * {@link DiscardListener}, installed ones to the installer listeners.
+ */
+class InstallPipeline {
+    private static final ResolvedFile END_OF_STREAM = new ResolvedFile(null, Collections.emptyList());
+
+    interface Resolver {
+        List<Artifact> resolve(DiscoveredFile file) throws MojoExecutionException;
+    }
+
+    interface DiscardListener {
+        void discarded(File source);
+    }
+
+    private final Resolver resolver;
+    private final ArtifactInstaller installer;
+    private final Log log;
+    private final ExecutorService resolvePool;
+    private final Semaphore openFiles;
+    private final ExecutorService installThread;
+    private final BlockingQueue<ResolvedFile> installQueue;
+    private final Future<?> installTask;
+    private final Map<String, Throwable> failures = new ConcurrentSkipListMap<>();
+    private final AtomicReference<Throwable> abort = new AtomicReference<>();
+    private final AtomicInteger discovered = new AtomicInteger();
+    private final AtomicInteger resolved = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private DiscardListener discardListener = source -> { };
+
+    InstallPipeline(int threads, int maxOpenFiles, Resolver resolver, ArtifactInstaller installer, Log log) {
+        this.resolver = resolver;
+        this.installer = installer;
+        this.log = log;
+        this.resolvePool = WorkerThreads.newResolveExecutor(threads);
+        this.openFiles = new Semaphore(maxOpenFiles);
+        this.installQueue = new ArrayBlockingQueue<>(threads * 4);
+        this.installThread = Executors.newSingleThreadExecutor(WorkerThreads.namedThreads("install-multiple-install"));
+        this.installTask = installThread.submit(this::drainInstallQueue);
+        log.debug(String.format("Resolving on %s, at most %d open files", WorkerThreads.describe(threads), maxOpenFiles));
+    }
+
+    /**
+     * Set before the first submission.
+     */
+    void setDiscardListener(DiscardListener discardListener) {
+        this.discardListener = discardListener;
+    }
+
+    void submit(DiscoveredFile file) throws MojoExecutionException {
+        discovered.incrementAndGet();
+        try {
+            while (!openFiles.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                checkAborted();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while discovering artifacts", e);
+        }
+        try {
+            checkAborted();
+        } catch (MojoExecutionException e) {
+            openFiles.release();
+            discardListener.discarded(file.getFile());
+            throw e;
+        }
+        resolvePool.execute(() -> {
+            try {
+                List<Artifact> artifacts = resolver.resolve(file);
+                if (artifacts.isEmpty()) {
+                    skipped.incrementAndGet();
+                    discardListener.discarded(file.getFile());
+                    return;
+                }
+                resolved.incrementAndGet();
+                installQueue.put(new ResolvedFile(file.getFile(), artifacts));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (isNull(abort.get())) failures.put(file.getFile().getAbsolutePath(), e);
+                discardListener.discarded(file.getFile());
+            } catch (Exception e) {
+                failures.put(file.getFile().getAbsolutePath(), e);
+                discardListener.discarded(file.getFile());
+            } finally {
+                openFiles.release();
+            }
+        });
+    }
+
+    private void checkAborted() throws MojoExecutionException {
+        Throwable cause = abort.get();
+        if (!isNull(cause)) {
+            throw new MojoExecutionException("Install stage failed, discovery stopped: " + cause, cause);
+        }
+    }
+
+    /**
+     * Hands over a file whose artifacts are already known, bypassing the resolve stage.
+     */
+    void submit(ResolvedFile file) throws MojoExecutionException {
+        checkAborted();
+        discovered.incrementAndGet();
+        resolved.incrementAndGet();
+        try {
+            installQueue.put(file);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while discovering artifacts", e);
+        }
+    }
+
+    void await() throws MojoExecutionException {
+        try {
+            resolvePool.shutdown();
+            resolvePool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            installQueue.put(END_OF_STREAM);
+            installTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while installing artifacts", e);
+        } catch (ExecutionException e) {
+            failures.put("<install>", e.getCause());
+        } finally {
+            resolvePool.shutdownNow();
+            installThread.shutdownNow();
+        }
+
+        log.info(String.format("Summary: %d files discovered, %d resolved, %d skipped, %d failed",
+                discovered.get(), resolved.get(), skipped.get(), failures.size()));
+        if (!failures.isEmpty()) {
+            failures.forEach((path, e) -> log.error(path + ": " + e.getMessage()));
+            Map.Entry<String, Throwable> first = failures.entrySet().iterator().next();
+            throw new MojoExecutionException(String.format("%d artifacts failed to install, first failure: %s",
+                    failures.size(), first.getKey()), first.getValue());
+        }
+    }
+
+    private Void drainInstallQueue() throws InterruptedException {
+        ResolvedFile file;
+        while ((file = installQueue.take()) != END_OF_STREAM) {
+            if (!isNull(abort.get())) {
+                discardListener.discarded(file.getSource());
+                continue;
+            }
+            try {
+                installer.add(file);
+            } catch (MojoExecutionException e) {
+                recordBatchFailure(file, e);
+            } catch (Throwable e) {
+                abort(file, e);
+            }
+        }
+        if (!isNull(abort.get())) return null;
+        try {
+            installer.flush();
+        } catch (MojoExecutionException e) {
+            recordBatchFailure(null, e);
+        } catch (Throwable e) {
+            abort(null, e);
+        }
+        return null;
+    }
+
+    /**
+     * Every file of a failed batch is reported, not only the one whose addition triggered the flush.
+     */
+    private void recordBatchFailure(ResolvedFile trigger, MojoExecutionException e) {
+        if (e instanceof ArtifactInstaller.BatchException) {
+            ((ArtifactInstaller.BatchException) e).getSources().forEach(source -> {
+                failures.put(source.getAbsolutePath(), e);
+                discardListener.discarded(source);
+            });
+        } else {
+            failures.put(isNull(trigger) ? "<install>" : trigger.getSource().getAbsolutePath(), e);
+            if (!isNull(trigger)) discardListener.discarded(trigger.getSource());
+        }
+    }
+
+    private void abort(ResolvedFile trigger, Throwable e) {
+        failures.put(isNull(trigger) ? "<install>" : trigger.getSource().getAbsolutePath(), e);
+        if (!isNull(trigger)) discardListener.discarded(trigger.getSource());
+        abort.compareAndSet(null, e);
+        resolvePool.shutdownNow();
+        log.error("Install stage failed, aborting: " + e);
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.uniclog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * How artifact files end up in the local repository.
+ * Every strategy other than {@link #COPY} places the file at its target path before the repository system runs;
+ * the resolver then sees an up-to-date target (same size and modification time) and only updates the metadata.
+ * When a link cannot be created (different file systems, unsupported file system) the resolver copies as usual.
+ */
+enum InstallStrategy {
+    COPY {
+        @Override
+        boolean place(Path source, Path temp) {
+            return false;
+        }
+    },
+    HARDLINK {
+        @Override
+        boolean place(Path source, Path temp) throws IOException {
+            if (!Files.getFileStore(source).equals(Files.getFileStore(temp.getParent()))) return false;
+            Files.createLink(temp, source);
+            return true;
+        }
+    },
+    REFLINK {
+        @Override
+        boolean place(Path source, Path temp) throws IOException {
+            Process process = new ProcessBuilder("cp", "--reflink=always", "--preserve=timestamps",
+                    source.toString(), temp.toString())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                return process.waitFor() == 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroy();
+                return false;
+            }
+        }
+    },
+    SYMLINK {
+        @Override
+        boolean place(Path source, Path temp) throws IOException {
+            Files.createSymbolicLink(temp, source.toAbsolutePath());
+            return true;
+        }
+    };
+
+    /**
+     * Creates {@code temp} as a link (or clone) of {@code source}.
+     *
+     * @return {@code false} when this strategy cannot be used for the file and it has to be copied
+     */
+    abstract boolean place(Path source, Path temp) throws IOException;
+
+    /**
+     * Places {@code source} at {@code target}, replacing any existing file atomically.
+     *
+     * @return {@code false} when the file has to be copied instead
+     */
+    boolean install(Path source, Path target) throws IOException {
+        if (this == COPY) return false;
+
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".link-" + System.nanoTime());
+        try {
+            if (!place(source, temp)) return false;
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.uniclog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.zip.ZipException;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Reads the POM embedded by Maven under {@code META-INF/maven/<groupId>/<artifactId>/pom.xml} into memory,
+ * together with the {@code pom.properties} next to it. When a jar embeds several POMs the
+ * {@link EmbeddedPomSelector} decides, from a single pass over the {@code META-INF/maven/} entries.
+ */
+final class JarPomReader {
+    private static final String MAVEN_DIRECTORY = "META-INF/maven/";
+    private static final byte[] MAVEN_DIRECTORY_BYTES = MAVEN_DIRECTORY.getBytes(StandardCharsets.US_ASCII);
+    private static final String POM_NAME = "pom.xml";
+    private static final String PROPERTIES_NAME = "pom.properties";
+
+    private JarPomReader() {
+    }
+
+    static EmbeddedPom read(File file) throws IOException {
+        return read(file, EmbeddedPomSelector.FILE_NAME);
+    }
+
+    /**
+     * Only the central directory is loaded and only entries under {@code META-INF/maven/} are decoded;
+     * archives the minimal reader does not understand fall back to {@link JarFile}.
+     *
+     * @return the embedded POM, or {@code null} when the jar has none
+     * @throws AmbiguousPomException when the jar embeds POMs but the selector accepts none of them
+     */
+    static EmbeddedPom read(File file, EmbeddedPomSelector selector) throws IOException {
+        try (ZipCentralDirectory zip = ZipCentralDirectory.open(file)) {
+            return select(file, zip.entries(MAVEN_DIRECTORY_BYTES), ZipCentralDirectory.Entry::getName, zip::read, selector);
+        } catch (ZipException | IndexOutOfBoundsException e) {
+            return readWithJarFile(file, selector);
+        }
+    }
+
+    /**
+     * Scans every entry of the jar; kept as the fallback and as the benchmark baseline.
+     */
+    static EmbeddedPom readWithJarFile(File file, EmbeddedPomSelector selector) throws IOException {
+        try (JarFile jarFile = new JarFile(file)) {
+            List<JarEntry> entries = jarFile.stream()
+                    .filter(entry -> entry.getName().startsWith(MAVEN_DIRECTORY))
+                    .collect(Collectors.toList());
+            return select(file, entries, JarEntry::getName, entry -> readEntry(jarFile, entry), selector);
+        }
+    }
+
+    private static <E> EmbeddedPom select(File file, List<E> entries, Function<E, String> names,
+                                          EntryReader<E> reader, EmbeddedPomSelector selector) throws IOException {
+        Map<String, E> poms = new LinkedHashMap<>();
+        Map<String, E> properties = new LinkedHashMap<>();
+        for (E entry : entries) {
+            String name = names.apply(entry);
+            if (name.length() > MAVEN_DIRECTORY.length() + POM_NAME.length() && name.endsWith("/" + POM_NAME)) {
+                poms.put(name.substring(0, name.length() - POM_NAME.length()), entry);
+            } else if (name.endsWith("/" + PROPERTIES_NAME)) {
+                properties.put(name.substring(0, name.length() - PROPERTIES_NAME.length()), entry);
+            }
+        }
+        if (poms.isEmpty()) return null;
+
+        List<String> directories = new ArrayList<>(poms.keySet());
+        List<PomCoordinates> propertiesCoordinates = new ArrayList<>(directories.size());
+        List<EmbeddedPomSelector.Candidate> candidates = new ArrayList<>(directories.size());
+        for (String directory : directories) {
+            E propertiesEntry = properties.get(directory);
+            PomCoordinates coordinates = isNull(propertiesEntry) ? null : EmbeddedPom.readProperties(reader.read(propertiesEntry));
+            propertiesCoordinates.add(coordinates);
+            candidates.add(candidate(directory, coordinates));
+        }
+
+        int selected = selector.select(file, candidates);
+        if (selected < 0) {
+            throw new AmbiguousPomException(file.getName() + " embeds " + candidates.size() + " POMs, none selected by rule '"
+                    + selector + "': " + candidates);
+        }
+        return new EmbeddedPom(reader.read(poms.get(directories.get(selected))), propertiesCoordinates.get(selected));
+    }
+
+    private static EmbeddedPomSelector.Candidate candidate(String directory, PomCoordinates properties) {
+        if (!isNull(properties)) {
+            return new EmbeddedPomSelector.Candidate(properties.getGroupId(), properties.getArtifactId(),
+                    properties.getVersion());
+        }
+        String[] segments = directory.substring(MAVEN_DIRECTORY.length()).split("/");
+        int last = segments.length - 1;
+        return new EmbeddedPomSelector.Candidate(last > 0 ? segments[last - 1] : null, segments[last], null);
+    }
+
+    private static byte[] readEntry(JarFile jarFile, JarEntry entry) throws IOException {
+        try (InputStream in = jarFile.getInputStream(entry)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private interface EntryReader<E> {
+        byte[] read(E entry) throws IOException;
+    }
+
+    /**
+     * The jar embeds POMs, but none of them can be attributed to the jar itself.
+     */
+    static class AmbiguousPomException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        AmbiguousPomException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package io.github.uniclog;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Sequential reader of a manifest listing the files to install, one entry at a time so that memory does not
+ * depend on the manifest size. Relative paths are resolved against the directory of the manifest.
+ * <ul>
+ *     <li>plain text: one path per line, blank lines and {@code #} comments ignored;</li>
+ *     <li>CSV ({@code .csv}): {@code path[,groupId,artifactId,version[,classifier[,extension]]]}, an optional
+ *     header row starting with {@code path}, fields optionally double-quoted;</li>
+ *     <li>JSON (starting with {@code [} or <code>{</code>): an array, or a sequence (JSON Lines), of path strings
+ *     or flat objects with the {@code path}, {@code groupId}, {@code artifactId}, {@code version},
+ *     {@code classifier} and {@code extension} members.</li>
+ * </ul>
+ */
+class ManifestReader implements Closeable {
+    private final BufferedReader reader;
+    private final File baseDirectory;
+    private final Format format;
+    private int line = 1;
+    private boolean started;
+
+    private enum Format { LINES, CSV, JSON }
+
+    private ManifestReader(BufferedReader reader, File manifest, Format format) {
+        this.reader = reader;
+        this.baseDirectory = manifest.getAbsoluteFile().getParentFile();
+        this.format = format;
+    }
+
+    static ManifestReader open(File manifest) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(manifest.toPath(), StandardCharsets.UTF_8);
+        try {
+            return new ManifestReader(reader, manifest, detectFormat(manifest, reader));
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    private static Format detectFormat(File manifest, BufferedReader reader) throws IOException {
+        if (manifest.getName().toLowerCase(Locale.ROOT).endsWith(".csv")) return Format.CSV;
+        reader.mark(4096);
+        int c;
+        do {
+            c = reader.read();
+        } while (c == '\uFEFF' || Character.isWhitespace(c));
+        reader.reset();
+        return c == '[' || c == '{' ? Format.JSON : Format.LINES;
+    }
+
+    /**
+     * @return the next entry, or {@code null} at the end of the manifest
+     */
+    Entry next() throws IOException {
+        return format == Format.JSON ? nextJson() : nextLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Entry nextLine() throws IOException {
+        String text;
+        while (!isNull(text = reader.readLine())) {
+            int number = line++;
+            text = text.strip();
+            if (text.startsWith("\uFEFF")) text = text.substring(1).strip();
+            if (text.isEmpty() || text.startsWith("#")) continue;
+            if (format == Format.LINES) return new Entry(file(text), number);
+
+            List<String> fields = splitCsv(text, number);
+            if (number == 1 && fields.get(0).equalsIgnoreCase("path")) continue;
+            String[] values = new String[6];
+            for (int i = 0; i < Math.min(fields.size(), values.length); i++) {
+                values[i] = fields.get(i).isEmpty() ? null : fields.get(i);
+            }
+            if (isNull(values[0])) throw error("missing path", number);
+            return entry(file(values[0]), values[1], values[2], values[3], values[4], values[5], number);
+        }
+        return null;
+    }
+
+    private List<String> splitCsv(String text, int number) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw error("unterminated quote", number);
+        fields.add(field.toString().strip());
+        return fields;
+    }
+
+    private Entry nextJson() throws IOException {
+        int c = skipWhitespace();
+        if (!started) {
+            started = true;
+            if (c == '[') {
+                c = skipWhitespace();
+            }
+        }
+        while (c == ',') {
+            c = skipWhitespace();
+        }
+        if (c == -1 || c == ']') return null;
+
+        int number = line;
+        if (c == '"') return new Entry(file(readString()), number);
+        if (c != '{') throw error("expected a path string or an object", number);
+
+        String path = null;
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
+        String classifier = null;
+        String extension = null;
+        c = skipWhitespace();
+        while (c != '}') {
+            if (c != '"') throw error("expected a member name", line);
+            String name = readString();
+            if (skipWhitespace() != ':') throw error("expected ':' after \"" + name + "\"", line);
+            String value = readValue(skipWhitespace());
+            switch (name) {
+                case "path":
+                case "file":
+                    path = value;
+                    break;
+                case "groupId":
+                    groupId = value;
+                    break;
+                case "artifactId":
+                    artifactId = value;
+                    break;
+                case "version":
+                    version = value;
+                    break;
+                case "classifier":
+                    classifier = value;
+                    break;
+                case "extension":
+                    extension = value;
+                    break;
+                default:
+                    break;
+            }
+            c = skipWhitespace();
+            if (c == ',') {
+                c = skipWhitespace();
+            } else if (c != '}') {
+                throw error("expected ',' or '}'", line);
+            }
+        }
+        if (isNull(path)) throw error("missing path", number);
+        return entry(file(path), groupId, artifactId, version, classifier, extension, number);
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = reader.read();
+            if (c == '\n') line++;
+        } while (c == '\uFEFF' || (c != -1 && Character.isWhitespace(c)));
+        return c;
+    }
+
+    /**
+     * Strings, numbers, booleans and {@code null}; nested objects and arrays are not part of the format.
+     */
+    private String readValue(int c) throws IOException {
+        if (c == '"') return readString();
+        if (c == '{' || c == '[' || c == ',' || c == '}' || c == -1) throw error("expected a string value", line);
+        StringBuilder literal = new StringBuilder();
+        while (c != -1 && c != ',' && c != '}' && !Character.isWhitespace(c)) {
+            literal.append((char) c);
+            reader.mark(1);
+            c = reader.read();
+        }
+        reader.reset();
+        return literal.toString().equals("null") ? null : literal.toString();
+    }
+
+    private String readString() throws IOException {
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            int c = reader.read();
+            if (c == -1 || c == '\n') throw error("unterminated string", line);
+            if (c == '"') return value.toString();
+            if (c != '\\') {
+                value.append((char) c);
+                continue;
+            }
+            int escaped = reader.read();
+            switch (escaped) {
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'u':
+                    char[] hex = new char[4];
+                    if (reader.read(hex) != 4) throw error("truncated escape", line);
+                    try {
+                        value.append((char) Integer.parseInt(new String(hex), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("invalid escape \\u" + new String(hex), line);
+                    }
+                    break;
+                case -1:
+                    throw error("unterminated string", line);
+                default:
+                    value.append((char) escaped);
+            }
+        }
+    }
+
+    private File file(String path) {
+        File file = new File(path);
+        return file.isAbsolute() ? file : new File(baseDirectory, path);
+    }
+
+    private Entry entry(File file, String groupId, String artifactId, String version, String classifier,
+                        String extension, int number) throws IOException {
+        if (isNull(groupId) && isNull(artifactId) && isNull(version)) {
+            return new Entry(file, number);
+        }
+        if (isNull(groupId) || isNull(artifactId) || isNull(version)) {
+            throw error("groupId, artifactId and version must be given together", number);
+        }
+        if (isNull(extension)) {
+            String name = file.getName();
+            if (!name.contains(".")) throw error("no extension in " + name + ", give one explicitly", number);
+            extension = name.substring(name.lastIndexOf('.') + 1);
+        }
+        return new Entry(file, number, groupId, artifactId, version, isNull(classifier) ? "" : classifier, extension);
+    }
+
+    private static IOException error(String message, int line) {
+        return new IOException("line " + line + ": " + message);
+    }
+
+    /**
+     * A listed file, with its coordinates when the manifest provides them.
+     */
+    static class Entry {
+        private final File file;
+        private final int line;
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String classifier;
+        private final String extension;
+
+        Entry(File file, int line) {
+            this(file, line, null, null, null, null, null);
+        }
+
+        Entry(File file, int line, String groupId, String artifactId, String version, String classifier,
+              String extension) {
+            this.file = file;
+            this.line = line;
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.classifier = classifier;
+            this.extension = extension;
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        int getLine() {
+            return line;
+        }
+
+        boolean hasCoordinates() {
+            return !isNull(groupId);
+        }
+
+        String getGroupId() {
+            return groupId;
+        }
+
+        String getArtifactId() {
+            return artifactId;
+        }
+
+        String getVersion() {
+            return version;
+        }
+
+        String getClassifier() {
+            return classifier;
+        }
+
+        String getExtension() {
+            return extension;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.uniclog;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.util.artifact.SubArtifact;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Discovery from a manifest instead of a directory walk: entries are streamed from the {@link ManifestReader}
+ * and handed over one by one. Entries with coordinates become artifacts right away and go straight to the install
+ * stage, without any POM being read; the others go through the regular resolution by packaging.
+ * A main artifact given by coordinates is installed with the {@code <artifactId>-<version>.pom} next to it, or else,
+ * unless the repository already holds one, with a minimal generated POM, as {@code install:install-file} does.
+ * A listed file that does not exist fails the build, as the manifest is expected to be exact.
+ */
+class ManifestScanner {
+    private final File manifest;
+    private final Function<Artifact, File> repositoryPoms;
+    private final Log log;
+    private int entries;
+    private int withCoordinates;
+    private int siblingPoms;
+    private int generatedPoms;
+    private int unsupported;
+    private long readNanos;
+
+    interface ResolvedSink {
+        void accept(ResolvedFile file) throws MojoExecutionException;
+    }
+
+    /**
+     * @param repositoryPoms maps a POM artifact to its file in the target repository
+     */
+    ManifestScanner(File manifest, Function<Artifact, File> repositoryPoms, Log log) {
+        this.manifest = manifest;
+        this.repositoryPoms = repositoryPoms;
+        this.log = log;
+    }
+
+    void scan(CandidateSink candidates, ResolvedSink resolved) throws MojoExecutionException {
+        long start = System.nanoTime();
+        long sinkNanos = 0;
+        try (ManifestReader reader = ManifestReader.open(manifest)) {
+            ManifestReader.Entry entry;
+            while (!isNull(entry = reader.next())) {
+                entries++;
+                File file = entry.getFile();
+                if (!file.isFile()) {
+                    throw new MojoExecutionException(manifest + ", line " + entry.getLine() + ": file not found " + file);
+                }
+                long sinkStart = System.nanoTime();
+                if (entry.hasCoordinates()) {
+                    withCoordinates++;
+                    resolved.accept(new ResolvedFile(file, artifacts(entry)));
+                } else {
+                    String packaging = DirectoryScanner.packagingOf(file.getName());
+                    if (isNull(packaging)) {
+                        unsupported++;
+                        log.warn(manifest + ", line " + entry.getLine() + ": no coordinates given and not a jar, "
+                                + "zip or pom, skipping " + file);
+                    } else {
+                        candidates.accept(new DiscoveredFile(file, packaging, List.of()));
+                    }
+                }
+                sinkNanos += System.nanoTime() - sinkStart;
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error reading manifest " + manifest + ": " + e.getMessage(), e);
+        } finally {
+            readNanos += System.nanoTime() - start - sinkNanos;
+        }
+    }
+
+    private List<Artifact> artifacts(ManifestReader.Entry entry) throws IOException {
+        File file = entry.getFile();
+        Artifact artifact = new DefaultArtifact(entry.getGroupId(), entry.getArtifactId(), entry.getClassifier(),
+                entry.getExtension(), entry.getVersion()).setFile(file);
+        List<Artifact> artifacts = new ArrayList<>(2);
+        artifacts.add(artifact);
+        if (!artifact.getClassifier().isEmpty() || artifact.getExtension().equals("pom")) return artifacts;
+
+        Artifact pom = new SubArtifact(artifact, "", "pom");
+        File sibling = new File(file.getAbsoluteFile().getParentFile(),
+                artifact.getArtifactId() + "-" + artifact.getVersion() + ".pom");
+        if (sibling.isFile()) {
+            siblingPoms++;
+            artifacts.add(pom.setFile(sibling));
+        } else if (!repositoryPoms.apply(pom).isFile()) {
+            generatedPoms++;
+            artifacts.add(new InMemoryArtifact(pom, generatePom(artifact)));
+        }
+        return artifacts;
+    }
+
+    private static byte[] generatePom(Artifact artifact) throws IOException {
+        var model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId(artifact.getGroupId());
+        model.setArtifactId(artifact.getArtifactId());
+        model.setVersion(artifact.getVersion());
+        model.setPackaging(artifact.getExtension());
+        model.setDescription("POM was created by install-multiple");
+        var pom = new ByteArrayOutputStream();
+        new MavenXpp3Writer().write(pom, model);
+        return pom.toByteArray();
+    }
+
+    String summary() {
+        return String.format("Manifest: %d entries (%d with coordinates, %d POMs found next to them, %d generated, "
+                        + "%d skipped), read %d ms",
+                entries, withCoordinates, siblingPoms, generatedPoms, unsupported, readNanos / 1_000_000);
+    }
+}
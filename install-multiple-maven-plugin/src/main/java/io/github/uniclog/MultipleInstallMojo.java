@@ -1,229 +1,442 @@
 package io.github.uniclog;
 
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.model.Model;
-import org.apache.maven.model.Parent;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.eclipse.aether.DefaultRepositoryCache;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
-import org.eclipse.aether.artifact.DefaultArtifact;
-import org.eclipse.aether.installation.InstallRequest;
-import org.eclipse.aether.installation.InstallationException;
 import org.eclipse.aether.repository.LocalRepository;
-import org.eclipse.aether.util.artifact.SubArtifact;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.util.function.Predicate;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import java.util.regex.Pattern;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 
 import static java.util.Objects.isNull;
 
 @Mojo(name = "install-multiple", requiresProject = false)
 public class MultipleInstallMojo extends AbstractMojo {
-    private static final Pattern POM_ENTRY_PATTERN = Pattern.compile("META-INF/maven/.*/pom\\.xml");
-    private static final Predicate<JarEntry> IS_POM_ENTRY = entry -> POM_ENTRY_PATTERN.matcher(entry.getName()).matches();
+    private static final String SESSION_KEY = MultipleInstallMojo.class.getName() + ".session:";
+    private static final String SPOOL_DIRECTORY = ".install-multiple-spool";
+    private static final String FINGERPRINT_CACHE = ".install-multiple-fingerprints";
+    private static final String JOURNAL = ".install-multiple-journal";
 
-    @Parameter(property = "files", required = true)
+    @Parameter(property = "files")
     private File files;
+    @Parameter(property = "manifest")
+    private File manifest;
     @Parameter(property = "localRepositoryPath", defaultValue = "${project.build.directory}/local_repo")
     private File localRepositoryPath;
+    @Parameter(property = "bundle")
+    private Boolean bundle;
+    @Parameter(property = "layout", defaultValue = "flat")
+    private String layout = "flat";
     @Parameter(property = "recurcive")
     private Boolean recurcive = false;
+    @Parameter(property = "includes")
+    private List<String> includes;
+    @Parameter(property = "excludes")
+    private List<String> excludes;
+    @Parameter(property = "classifiers", defaultValue = "sources,javadoc,tests,test-sources")
+    private List<String> classifiers = List.of("sources", "javadoc", "tests", "test-sources");
+    @Parameter(property = "embeddedPomSelection", defaultValue = "filename")
+    private String embeddedPomSelection = "filename";
+    @Parameter(property = "installBatchSize", defaultValue = "1")
+    private int installBatchSize = 1;
+    @Parameter(property = "threads")
+    private int threads = Runtime.getRuntime().availableProcessors();
+    @Parameter(property = "maxOpenFiles")
+    private int maxOpenFiles;
+    @Parameter(property = "discoveryThreads", defaultValue = "1")
+    private int discoveryThreads = 1;
+    @Parameter(property = "skipIdentical", defaultValue = "false")
+    private boolean skipIdentical;
+    @Parameter(property = "installStrategy", defaultValue = "copy")
+    private String installStrategy = "copy";
+    @Parameter(property = "staging", defaultValue = "none")
+    private String staging = "none";
+    @Parameter(property = "incremental", defaultValue = "false")
+    private boolean incremental;
+    @Parameter(property = "fingerprintCache")
+    private File fingerprintCache;
+    @Parameter(property = "fingerprintContent", defaultValue = "false")
+    private boolean fingerprintContent;
+    @Parameter(property = "resume", defaultValue = "false")
+    private boolean resume;
+    @Parameter(property = "journal")
+    private File journal;
     @Parameter(defaultValue = "${session}", required = true, readonly = true)
     private MavenSession session;
     @Component
     private RepositorySystem repositorySystem;
 
+    private RepositorySystemSession repositorySystemSession;
+    private int sessionsCreated;
+    private FingerprintCache fingerprints;
+    private InstallJournal installJournal;
+    private StagedRepository stagedRepository;
+    private BundleScanner bundleScanner;
+    private FileResolver resolver;
+
     @Override
     public void execute() throws MojoExecutionException {
-        if (isNull(files) || !files.exists()) {
+        boolean manifestInput = !isNull(manifest);
+        if (manifestInput && !manifest.isFile()) {
+            throw new MojoExecutionException("Manifest not found: " + manifest);
+        }
+        if (!manifestInput && (isNull(files) || !files.exists())) {
             getLog().warn("Artifacts not found");
             return;
         }
-        processDirectory(files);
-    }
-
-    private void processDirectory(File dir) throws MojoExecutionException {
-        File[] children = dir.listFiles((dir1, name) ->
-                name.endsWith(".jar") || name.endsWith(".zip") || name.endsWith(".pom")
-                        || dir1.isDirectory()
-        );
-        if (isNull(children)) return;
-
-        for (File file : children) {
-            if (file.isDirectory() && recurcive) {
-                processDirectory(file);
-            } else if (file.getName().endsWith(".jar")) {
-                install(file, "jar");
-            } else if (file.getName().endsWith(".zip")) {
-                install(file, "zip");
-            } else if (file.getName().endsWith(".pom")) {
-                install(file, "pom");
+        boolean bundleInput = !manifestInput && isBundle();
+        boolean mavenLayout = isMavenLayout();
+        if (mavenLayout && (manifestInput || bundleInput || !files.isDirectory())) {
+            throw new MojoExecutionException("layout maven requires files to be a directory and no manifest");
+        }
+        if (bundleInput) {
+            bundleScanner = new BundleScanner(files, new File(localRepositoryPath, SPOOL_DIRECTORY), classifiers,
+                    getPathFilter(), getLog());
+            setLog(bundleScanner.describing(getLog()));
+        }
+        resolver = new FileResolver(getLog());
+        resolver.setEmbeddedPomSelector(getEmbeddedPomSelector());
+        resolver.setEffectiveModels(new EffectiveModels(manifestInput || bundleInput ? null : getInputPoms(),
+                artifact -> new File(localRepositoryPath, getRepositoryPath(artifact)),
+                session.getUserProperties(), getLog()));
+        var installer = new ArtifactInstaller(repositorySystem, getRepositorySystemSession(), installBatchSize,
+                new File(localRepositoryPath, SPOOL_DIRECTORY), getLog());
+        installer.setSkipIdentical(skipIdentical);
+        installer.setInstallStrategy(getInstallStrategy());
+        if (bundleInput && getInstallStrategy() == InstallStrategy.SYMLINK) {
+            getLog().warn("installStrategy symlink cannot point into a bundle, copying instead");
+            installer.setInstallStrategy(InstallStrategy.COPY);
+        }
+        setStaging(installer);
+        if (incremental) {
+            fingerprints = loadFingerprintCache();
+            installer.addListener(file -> fingerprints.record(file, getRepositoryPath(file.getArtifacts().get(0))));
+        }
+        if (resume || !isNull(journal)) {
+            installJournal = openJournal();
+            installer.addListener(installJournal::record);
+        }
+        boolean completed = false;
+        try {
+            if (manifestInput) {
+                installManifest(installer);
+            } else if (mavenLayout) {
+                installRepositoryLayout(installer);
+            } else if (bundleInput) {
+                installBundle(installer);
+            } else {
+                install(installer);
             }
+            installer.commit();
+            completed = true;
+        } finally {
+            if (!completed) installer.rollback();
+            if (!isNull(stagedRepository)) stagedRepository.close();
+            saveFingerprintCache();
+            if (!isNull(installJournal)) closeJournal(completed);
+        }
+        getLog().info(installer.summary());
+        if (!isNull(fingerprints)) {
+            getLog().info(fingerprints.summary());
+        }
+        if (!isNull(installJournal)) {
+            getLog().info(installJournal.summary());
         }
+        if (!isNull(stagedRepository)) {
+            getLog().info(stagedRepository.summary());
+        }
+        getLog().debug(resolver.summary(installer.getSpooledFiles()));
+        getLog().debug("Repository sessions created by this execution: " + sessionsCreated);
     }
 
-    private void install(File file, String packaging) throws MojoExecutionException {
-        File pomFile = file;
-        if (!packaging.equals("pom")) {
-            pomFile = findPomForArtifact(file);
-            if (isNull(pomFile)) {
-                getLog().warn("POM file not found: " + file.getAbsolutePath());
+    private InstallStrategy getInstallStrategy() throws MojoExecutionException {
+        try {
+            return InstallStrategy.valueOf(installStrategy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Unknown installStrategy '" + installStrategy
+                    + "', expected one of: copy, hardlink, reflink, symlink", e);
+        }
+    }
+
+    private void setStaging(ArtifactInstaller installer) throws MojoExecutionException {
+        boolean commitBatches;
+        switch (staging.trim().toLowerCase(Locale.ROOT)) {
+            case "none":
                 return;
-            }
+            case "batch":
+                commitBatches = true;
+                break;
+            case "run":
+                if (!isNull(bundleScanner)) {
+                    // spooled entries are only released once installed, that is at the single commit of the run
+                    throw new MojoExecutionException("staging run would spool the whole bundle before committing, "
+                            + "use staging batch for bundles");
+                }
+                commitBatches = false;
+                break;
+            default:
+                throw new MojoExecutionException("Unknown staging '" + staging + "', expected one of: none, batch, run");
+        }
+        stagedRepository = new StagedRepository(localRepositoryPath, getLog());
+        try {
+            stagedRepository.open();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error opening staging tree of " + localRepositoryPath, e);
+        }
+        installer.setStaging(getDefaultRepositorySystemSession(stagedRepository.getBasedir()), stagedRepository,
+                commitBatches);
+    }
+
+    private EmbeddedPomSelector getEmbeddedPomSelector() throws MojoExecutionException {
+        try {
+            return EmbeddedPomSelector.compile(embeddedPomSelection);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Invalid embeddedPomSelection: " + e.getMessage(), e);
         }
+    }
 
-        Model model = readModel(pomFile);
-        processModel(model);
+    private boolean isMavenLayout() throws MojoExecutionException {
+        switch (layout.trim().toLowerCase(Locale.ROOT)) {
+            case "flat":
+                return false;
+            case "maven":
+                return true;
+            default:
+                throw new MojoExecutionException("Unknown layout '" + layout + "', expected one of: flat, maven");
+        }
+    }
 
-        var repositorySystemSession = getDefaultRepositorySystemSession();
-        InstallRequest installRequest = new InstallRequest();
-        Artifact artifact = null;
+    private boolean isBundle() throws MojoExecutionException {
+        try {
+            return BundleScanner.isBundle(files, bundle);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error reading " + files, e);
+        }
+    }
 
-        switch (packaging) {
-            case "jar": {
-                artifact = new DefaultArtifact(
-                        model.getGroupId(),
-                        model.getArtifactId(),
-                        "jar",
-                        model.getVersion()
-                ).setFile(file);
-                installRequest.addArtifact(artifact);
-                break;
-            }
-            case "zip": {
-                artifact = new DefaultArtifact(
-                        model.getGroupId(),
-                        model.getArtifactId(),
-                        "zip",
-                        model.getVersion()
-                ).setFile(file);
-                installRequest.addArtifact(artifact);
-                break;
-            }
-            case "pom": {
-                String baseName = model.getArtifactId() + "-" + model.getVersion();
-                boolean zipExists = new File(file.getParent(), baseName + ".zip").exists();
-                boolean jarExists = new File(file.getParent(), baseName + ".jar").exists();
-                if (zipExists || jarExists) {
-                    getLog().debug("Skipping POM installation (JAR or ZIP exists): " + pomFile.getName());
-                    return;
-                }
+    private PathFilter getPathFilter() throws MojoExecutionException {
+        try {
+            return PathFilter.compile(includes, excludes);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Invalid includes/excludes pattern: " + e.getMessage(), e);
+        }
+    }
 
-                artifact = new DefaultArtifact(
-                        model.getGroupId(),
-                        model.getArtifactId(),
-                        "pom",
-                        model.getVersion()
-                ).setFile(pomFile);
-                installRequest.addArtifact(artifact);
-                break;
-            }
+    /**
+     * The POMs discovery lists, where parent POMs are looked up; the siblings of a single input file.
+     */
+    private EffectiveModels.PomSource getInputPoms() throws MojoExecutionException {
+        if (!files.isDirectory()) {
+            return () -> new DirectoryScanner(false, getLog()).listPoms(files.getAbsoluteFile().getParentFile());
+        }
+        var scanner = new DirectoryScanner(recurcive, getLog());
+        scanner.setFilter(getPathFilter());
+        return () -> scanner.listPoms(files);
+    }
+
+    private void install(ArtifactInstaller installer) throws MojoExecutionException {
+        var scanner = new DirectoryScanner(recurcive, getLog());
+        scanner.setFilter(getPathFilter());
+        scanner.setClassifiers(classifiers);
+        if (threads > 1) {
+            scanner.setParallelism(discoveryThreads);
         }
-        if (!packaging.equals("pom") && artifact != null) {
-            Artifact pomArtifact = new SubArtifact(artifact, "", "pom")
-                    .setFile(pomFile);
-            installRequest.addArtifact(pomArtifact);
+        try {
+            install(installer, (sink, resolved) -> scanner.scan(files, sink), resolver::resolve);
+        } finally {
+            getLog().info(scanner.summary());
         }
+    }
 
+    private void installBundle(ArtifactInstaller installer) throws MojoExecutionException {
+        var scanner = bundleScanner;
+        installer.addListener(file -> scanner.release(file.getSource()));
         try {
-            if (!installRequest.getArtifacts().isEmpty()) {
-                repositorySystem.install(repositorySystemSession, installRequest);
-                getLog().debug("Installed: " + artifact);
+            install(installer, (sink, resolved) -> scanner.scan(sink), resolver::resolve);
+        } catch (MojoExecutionException e) {
+            if (isNull(e.getMessage())) throw e;
+            // the original keeps the spool paths: -e still shows it, but not as a cause Maven prints the message of
+            String message = e.getMessage();
+            Throwable cause = e.getCause();
+            if (!isNull(cause) && !isNull(cause.getMessage()) && !message.contains(cause.getMessage())) {
+                message += ": " + cause.getMessage();
             }
-        } catch (InstallationException e) {
-            throw new MojoExecutionException(e.getMessage(), e);
+            var described = new MojoExecutionException(scanner.describe(message));
+            described.setStackTrace(e.getStackTrace());
+            described.addSuppressed(e);
+            throw described;
+        } finally {
+            scanner.cleanup();
+            getLog().info(scanner.summary());
         }
     }
 
-    private DefaultRepositorySystemSession getDefaultRepositorySystemSession() {
-        var repositorySystemSession = new DefaultRepositorySystemSession(session.getRepositorySession());
-        repositorySystemSession.setCache(new DefaultRepositoryCache());
-        String contentType = repositorySystemSession.getLocalRepository().getContentType();
-        if ("enhanced".equals(contentType)) {
-            contentType = "default";
+    private void installRepositoryLayout(ArtifactInstaller installer) throws MojoExecutionException {
+        var scanner = new RepositoryLayoutScanner(files, getPathFilter(), getLog());
+        try {
+            install(installer, (sink, resolved) -> scanner.scan(sink), scanner::resolve);
+        } finally {
+            getLog().info(scanner.summary());
         }
-        var localRepository = new LocalRepository(localRepositoryPath, contentType);
-        var localRepositoryManager = repositorySystem.newLocalRepositoryManager(repositorySystemSession, localRepository);
-        repositorySystemSession.setLocalRepositoryManager(localRepositoryManager);
-        return repositorySystemSession;
     }
 
-    private File findPomForArtifact(File file) {
-        if (file.getName().endsWith(".jar")) {
-            File extracted = readingPomFromJarFile(file);
-            if (extracted != null) {
-                return extracted;
+    private void installManifest(ArtifactInstaller installer) throws MojoExecutionException {
+        var scanner = new ManifestScanner(manifest,
+                artifact -> new File(localRepositoryPath, getRepositoryPath(artifact)), getLog());
+        try {
+            install(installer, scanner::scan, resolver::resolve);
+        } finally {
+            getLog().info(scanner.summary());
+        }
+    }
+
+    private void install(ArtifactInstaller installer, Discovery discovery, InstallPipeline.Resolver resolver)
+            throws MojoExecutionException {
+        if (threads > 1) {
+            var pipeline = new InstallPipeline(threads, maxOpenFiles > 0 ? maxOpenFiles : threads * 4, resolver, installer, getLog());
+            pipeline.setDiscardListener(this::discard);
+            try {
+                discovery.scan(skipUnchanged(pipeline::submit), skipUnchangedResolved(pipeline::submit));
+            } catch (MojoExecutionException | RuntimeException e) {
+                try {
+                    pipeline.await();
+                } catch (MojoExecutionException later) {
+                    e.addSuppressed(later);
+                }
+                throw e;
             }
+            pipeline.await();
+        } else {
+            discovery.scan(skipUnchanged(file -> {
+                List<Artifact> artifacts = resolver.resolve(file);
+                if (artifacts.isEmpty()) discard(file.getFile());
+                installer.add(new ResolvedFile(file.getFile(), artifacts));
+            }), skipUnchangedResolved(installer::add));
+            installer.flush();
         }
+    }
 
-        String pomName = file.getName();
-        if (pomName.contains(".")) {
-            pomName = pomName.substring(0, pomName.lastIndexOf('.'));
+    private CandidateSink skipUnchanged(CandidateSink sink) {
+        if (isNull(fingerprints) && !resume) return sink;
+        return file -> {
+            if (isDone(file.getFile(), file.getMembers())) {
+                discard(file.getFile());
+            } else {
+                sink.accept(file);
+            }
+        };
+    }
+
+    private ManifestScanner.ResolvedSink skipUnchangedResolved(ManifestScanner.ResolvedSink sink) {
+        if (isNull(fingerprints) && !resume) return sink;
+        return file -> {
+            if (!isDone(file.getSource(), file.getSourceFiles())) {
+                sink.accept(file);
+            }
+        };
+    }
+
+    /**
+     * A discovered file that will not be installed: its spooled bundle entries are not needed any longer.
+     */
+    private void discard(File file) {
+        if (!isNull(bundleScanner)) bundleScanner.release(file);
+    }
+
+    private boolean isDone(File file, Collection<File> members) {
+        if (resume && installJournal.isInstalled(file, members)) {
+            getLog().debug("Skipping file installed by the interrupted run: " + file);
+            return true;
+        }
+        if (!isNull(fingerprints) && fingerprints.isUnchanged(file, members)) {
+            getLog().debug("Skipping unchanged file: " + file);
+            return true;
         }
-        File pom = new File(file.getParent(), pomName + ".pom");
-        return pom.exists() ? pom : null;
+        return false;
     }
 
-    private File readingPomFromJarFile(File file) {
-        String base = file.getName();
-        if (base.contains(".")) {
-            base = base.substring(0, base.lastIndexOf('.'));
+    private InstallJournal openJournal() throws MojoExecutionException {
+        File journalFile = isNull(journal) ? new File(localRepositoryPath, JOURNAL) : journal;
+        if (!resume && journalFile.isFile()) {
+            getLog().warn("Overwriting the journal of an interrupted run in " + journalFile
+                    + ", rerun with -Dresume=true to continue that run instead");
         }
-        try (JarFile jarFile = new JarFile(file)) {
-            JarEntry pomEntry = jarFile.stream().filter(IS_POM_ENTRY).findAny().orElse(null);
-            if (isNull(pomEntry)) {
-                getLog().warn("pom.xml not found in " + file.getName());
-                return null;
-            }
-            Path tempPomFile = Files.createTempFile(base, ".pom");
-            Files.copy(jarFile.getInputStream(pomEntry), tempPomFile, StandardCopyOption.REPLACE_EXISTING);
-            getLog().debug("Loading " + pomEntry.getName());
-            return tempPomFile.toFile();
+        try {
+            return InstallJournal.open(journalFile, resume);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error opening install journal " + journalFile, e);
+        }
+    }
+
+    private void closeJournal(boolean completed) throws MojoExecutionException {
+        try {
+            installJournal.close(completed);
         } catch (IOException e) {
-            return null;
+            if (completed) throw new MojoExecutionException("Error writing install journal", e);
+            getLog().warn("Error writing install journal: " + e.getMessage());
+        }
+        if (!completed) {
+            getLog().info("Run interrupted, installs so far are journaled: rerun with -Dresume=true to continue");
         }
     }
 
-    private Model readModel(File pomFile) throws MojoExecutionException {
-        try (InputStream reader = Files.newInputStream(pomFile.toPath())) {
-            return new MavenXpp3Reader().read(reader);
-        } catch (FileNotFoundException e) {
-            throw new MojoExecutionException("File not found " + pomFile, e);
+    private FingerprintCache loadFingerprintCache() throws MojoExecutionException {
+        File cacheFile = isNull(fingerprintCache) ? new File(localRepositoryPath, FINGERPRINT_CACHE) : fingerprintCache;
+        try {
+            return FingerprintCache.load(cacheFile, localRepositoryPath, fingerprintContent);
         } catch (IOException e) {
-            throw new MojoExecutionException("Error reading POM " + pomFile, e);
-        } catch (XmlPullParserException e) {
-            throw new MojoExecutionException("Error parsing POM " + pomFile, e);
+            throw new MojoExecutionException("Error reading fingerprint cache " + cacheFile, e);
         }
     }
 
-    private void processModel(Model model) throws MojoExecutionException {
-        Parent parent = model.getParent();
-        if (model.getGroupId() == null && parent != null) {
-            model.setGroupId(parent.getGroupId());
+    private void saveFingerprintCache() throws MojoExecutionException {
+        if (isNull(fingerprints)) return;
+        try {
+            fingerprints.save();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error writing fingerprint cache", e);
         }
-        if (model.getVersion() == null && parent != null) {
-            model.setVersion(parent.getVersion());
+    }
+
+    private String getRepositoryPath(Artifact artifact) {
+        return getRepositorySystemSession().getLocalRepositoryManager().getPathForLocalArtifact(artifact);
+    }
+
+    private RepositorySystemSession getRepositorySystemSession() {
+        if (isNull(repositorySystemSession)) {
+            String key = SESSION_KEY + localRepositoryPath.getAbsolutePath();
+            repositorySystemSession = (RepositorySystemSession) session.getRepositorySession().getData()
+                    .computeIfAbsent(key, () -> getDefaultRepositorySystemSession(localRepositoryPath));
         }
-        if (isNull(model.getGroupId()) || isNull(model.getArtifactId()) || isNull(model.getVersion()) || isNull(model.getPackaging())) {
-            throw new MojoExecutionException(
-                    "The artifact information is incomplete: 'groupId', 'artifactId', 'version', 'packaging' are required.");
+        return repositorySystemSession;
+    }
+
+    private DefaultRepositorySystemSession getDefaultRepositorySystemSession(File basedir) {
+        sessionsCreated++;
+        var repositorySystemSession = new DefaultRepositorySystemSession(session.getRepositorySession());
+        repositorySystemSession.setCache(new DefaultRepositoryCache());
+        String contentType = repositorySystemSession.getLocalRepository().getContentType();
+        if ("enhanced".equals(contentType)) {
+            contentType = "default";
         }
+        var localRepository = new LocalRepository(basedir, contentType);
+        var localRepositoryManager = repositorySystem.newLocalRepositoryManager(repositorySystemSession, localRepository);
+        repositorySystemSession.setLocalRepositoryManager(localRepositoryManager);
+        return repositorySystemSession;
+    }
+
+    private interface Discovery {
+        void scan(CandidateSink sink, ManifestScanner.ResolvedSink resolved) throws MojoExecutionException;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package io.github.uniclog;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Include/exclude patterns evaluated against paths relative to the scanned root, with {@code /} as separator.
+ * Patterns are Ant-style globs ({@code **}{@code /vendor/**}, {@code *.jar}, {@code lib/?/*.zip}) unless prefixed
+ * with {@code glob:} or {@code regex:}, in which case they are handed to {@link java.nio.file.FileSystem#getPathMatcher}.
+ * Patterns are compiled once; a directory matching an exclude is pruned with its whole subtree.
+ */
+class PathFilter {
+    static final PathFilter ALL = new PathFilter(List.of(), List.of());
+
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+
+    private PathFilter(List<PathMatcher> includes, List<PathMatcher> excludes) {
+        this.includes = includes;
+        this.excludes = excludes;
+    }
+
+    static PathFilter compile(List<String> includes, List<String> excludes) {
+        if ((isNull(includes) || includes.isEmpty()) && (isNull(excludes) || excludes.isEmpty())) return ALL;
+        return new PathFilter(compile(includes), compile(excludes));
+    }
+
+    boolean includesFile(String relativePath) {
+        return (includes.isEmpty() || matches(includes, relativePath)) && !matches(excludes, relativePath);
+    }
+
+    boolean excludesDirectory(String relativePath) {
+        return !relativePath.isEmpty() && matches(excludes, relativePath);
+    }
+
+    private static boolean matches(List<PathMatcher> matchers, String relativePath) {
+        Path path = Path.of(relativePath);
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(path)) return true;
+        }
+        return false;
+    }
+
+    private static List<PathMatcher> compile(List<String> patterns) {
+        List<PathMatcher> matchers = new ArrayList<>();
+        if (isNull(patterns)) return matchers;
+        for (String pattern : patterns) {
+            String trimmed = pattern.trim();
+            if (trimmed.isEmpty()) continue;
+            if (trimmed.startsWith("glob:") || trimmed.startsWith("regex:")) {
+                matchers.add(FileSystems.getDefault().getPathMatcher(trimmed));
+            } else {
+                Pattern regex = Pattern.compile(antToRegex(trimmed));
+                matchers.add(path -> regex.matcher(path.toString().replace('\\', '/')).matches());
+            }
+        }
+        return matchers;
+    }
+
+    /**
+     * {@code **}{@code /} matches zero or more directories, a trailing {@code /**} the directory and everything below it,
+     * {@code *} anything but a separator and {@code ?} a single character.
+     */
+    static String antToRegex(String pattern) {
+        String normalized = pattern.replace('\\', '/');
+        if (normalized.startsWith("/")) normalized = normalized.substring(1);
+        if (normalized.endsWith("/")) normalized += "**";
+
+        StringBuilder regex = new StringBuilder();
+        int i = 0;
+        while (i < normalized.length()) {
+            if (normalized.startsWith("**/", i)) {
+                regex.append("(?:.*/)?");
+                i += 3;
+            } else if (normalized.startsWith("/**", i) && i + 3 == normalized.length()) {
+                regex.append("(?:/.*)?");
+                i += 3;
+            } else if (normalized.startsWith("**", i)) {
+                regex.append(".*");
+                i += 2;
+            } else {
+                char c = normalized.charAt(i++);
+                if (c == '*') {
+                    regex.append("[^/]*");
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+        }
+        return regex.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.uniclog;
+
+import static java.util.Objects.isNull;
+
+/**
+ * The subset of a POM needed to install an artifact: its coordinates, packaging and parent coordinates.
+ */
+class PomCoordinates {
+    private final String groupId;
+    private final String artifactId;
+    private final String version;
+    private final String packaging;
+    private final String parentGroupId;
+    private final String parentArtifactId;
+    private final String parentVersion;
+
+    PomCoordinates(String groupId, String artifactId, String version, String packaging,
+                   String parentGroupId, String parentArtifactId, String parentVersion) {
+        this.groupId = isNull(groupId) ? parentGroupId : groupId;
+        this.artifactId = artifactId;
+        this.version = isNull(version) ? parentVersion : version;
+        this.packaging = isNull(packaging) ? "jar" : packaging;
+        this.parentGroupId = parentGroupId;
+        this.parentArtifactId = parentArtifactId;
+        this.parentVersion = parentVersion;
+    }
+
+    boolean isComplete() {
+        return !isNull(groupId) && !isNull(artifactId) && !isNull(version);
+    }
+
+    /**
+     * @return whether a coordinate still holds an unresolved {@code ${...}} expression
+     */
+    boolean hasExpressions() {
+        return isExpression(groupId) || isExpression(artifactId) || isExpression(version) || isExpression(packaging);
+    }
+
+    private static boolean isExpression(String value) {
+        return !isNull(value) && value.contains("${");
+    }
+
+    String getGroupId() {
+        return groupId;
+    }
+
+    String getArtifactId() {
+        return artifactId;
+    }
+
+    String getVersion() {
+        return version;
+    }
+
+    String getPackaging() {
+        return packaging;
+    }
+
+    String getParentGroupId() {
+        return parentGroupId;
+    }
+
+    String getParentArtifactId() {
+        return parentArtifactId;
+    }
+
+    String getParentVersion() {
+        return parentVersion;
+    }
+
+    @Override
+    public String toString() {
+        return groupId + ":" + artifactId + ":" + packaging + ":" + version;
+    }
+}
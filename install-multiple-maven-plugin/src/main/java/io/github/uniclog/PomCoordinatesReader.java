@@ -0,0 +1,91 @@
+package io.github.uniclog;
+
+import org.codehaus.plexus.util.xml.pull.MXParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Streaming POM scanner that only reads the project and parent coordinates.
+ * Every other top-level element ({@code <dependencies>}, {@code <build>}, {@code <profiles>}...) is skipped
+ * without building a model, and scanning stops as soon as groupId, artifactId, version and packaging are known.
+ */
+final class PomCoordinatesReader {
+    private PomCoordinatesReader() {
+    }
+
+    static PomCoordinates read(InputStream in) throws IOException, XmlPullParserException {
+        XmlPullParser parser = new MXParser();
+        parser.setInput(in, null);
+        parser.nextTag();
+        parser.require(XmlPullParser.START_TAG, null, "project");
+
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
+        String packaging = null;
+        String[] parent = new String[3];
+        while (isNull(groupId) || isNull(artifactId) || isNull(version) || isNull(packaging)) {
+            int event = parser.next();
+            if (event == XmlPullParser.END_TAG || event == XmlPullParser.END_DOCUMENT) break;
+            if (event != XmlPullParser.START_TAG) continue;
+
+            switch (parser.getName()) {
+                case "groupId":
+                    groupId = parser.nextText().trim();
+                    break;
+                case "artifactId":
+                    artifactId = parser.nextText().trim();
+                    break;
+                case "version":
+                    version = parser.nextText().trim();
+                    break;
+                case "packaging":
+                    packaging = parser.nextText().trim();
+                    break;
+                case "parent":
+                    readParent(parser, parent);
+                    break;
+                default:
+                    skipElement(parser);
+            }
+        }
+        return new PomCoordinates(groupId, artifactId, version, packaging, parent[0], parent[1], parent[2]);
+    }
+
+    private static void readParent(XmlPullParser parser, String[] parent) throws IOException, XmlPullParserException {
+        while (parser.nextTag() == XmlPullParser.START_TAG) {
+            switch (parser.getName()) {
+                case "groupId":
+                    parent[0] = parser.nextText().trim();
+                    break;
+                case "artifactId":
+                    parent[1] = parser.nextText().trim();
+                    break;
+                case "version":
+                    parent[2] = parser.nextText().trim();
+                    break;
+                default:
+                    skipElement(parser);
+            }
+        }
+    }
+
+    private static void skipElement(XmlPullParser parser) throws IOException, XmlPullParserException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = parser.next();
+            if (event == XmlPullParser.START_TAG) {
+                depth++;
+            } else if (event == XmlPullParser.END_TAG) {
+                depth--;
+            } else if (event == XmlPullParser.END_DOCUMENT) {
+                throw new XmlPullParserException("Unexpected end of document", parser, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Discovery and resolution for an input tree that already is in Maven repository layout
+ * ({@code group/path/artifactId/version/artifactId-version[-classifier].extension}).
+ * <p>
+ * A directory is a version directory when it holds {@code <parent name>-<directory name>.pom}. Coordinates, classifier
+ * and extension of every file in it are derived from the path alone, so no jar is opened during the walk.
+ * The whole directory is passed to the sink as one candidate (the POM, with every other file as attachment)
+ * and installed in a single request.
+ * <p>
+ * The POM is only checked at resolution time, on the worker threads, with the coordinate scanner: a POM declaring
+ * other coordinates than its path makes the directory be skipped, a POM the scanner cannot settle is trusted.
+ * Checksums and repository bookkeeping files are left out, the repository system writes its own.
+ */
+class RepositoryLayoutScanner {
+    private static final List<String> IGNORED_SUFFIXES = List.of(".md5", ".sha1", ".sha256", ".sha512", ".lastUpdated");
+    private static final List<String> IGNORED_NAMES = List.of("_remote.repositories", "_maven.repositories",
+            "resolver-status.properties");
+
+    private final Path root;
+    private final PathFilter filter;
+    private final Log log;
+    private final AtomicInteger versionDirectories = new AtomicInteger();
+    private final AtomicInteger ignoredFiles = new AtomicInteger();
+    private final AtomicInteger verifiedPoms = new AtomicInteger();
+    private final AtomicInteger unverifiedPoms = new AtomicInteger();
+    private final AtomicInteger mismatchedPoms = new AtomicInteger();
+    private long walkNanos;
+
+    RepositoryLayoutScanner(File root, PathFilter filter, Log log) {
+        this.root = root.toPath();
+        this.filter = filter;
+        this.log = log;
+    }
+
+    void scan(CandidateSink sink) throws MojoExecutionException {
+        var visitor = new VersionDirectoryVisitor(sink);
+        long start = System.nanoTime();
+        try {
+            Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, visitor);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error scanning " + root, e);
+        } finally {
+            walkNanos += System.nanoTime() - start - visitor.sinkNanos;
+        }
+        if (!isNull(visitor.failure)) {
+            throw visitor.failure;
+        }
+    }
+
+    /**
+     * @param versionDirectory the POM of a version directory, as passed to the sink, with the other files of that
+     *                         directory as attachments
+     */
+    List<Artifact> resolve(DiscoveredFile versionDirectory) throws MojoExecutionException {
+        File pomFile = versionDirectory.getFile();
+        List<File> attachments = versionDirectory.getAttachments();
+        Path directory = pomFile.toPath().getParent();
+        String version = directory.getFileName().toString();
+        String artifactId = directory.getParent().getFileName().toString();
+        String groupId = relativePath(directory.getParent().getParent()).replace('/', '.');
+        if (!verify(pomFile, groupId, artifactId, version)) return Collections.emptyList();
+
+        var pom = new DefaultArtifact(groupId, artifactId, "pom", version).setFile(pomFile);
+        List<Artifact> artifacts = new ArrayList<>(attachments.size() + 1);
+        artifacts.add(pom);
+        int prefix = artifactId.length() + version.length() + 1;
+        for (File attachment : attachments) {
+            String suffix = attachment.getName().substring(prefix);
+            String classifier = "";
+            if (suffix.startsWith("-")) {
+                classifier = suffix.substring(1, suffix.indexOf('.'));
+                suffix = suffix.substring(classifier.length() + 1);
+            }
+            artifacts.add(new DefaultArtifact(groupId, artifactId, classifier, suffix.substring(1), version)
+                    .setFile(attachment));
+        }
+        return artifacts;
+    }
+
+    private boolean verify(File pomFile, String groupId, String artifactId, String version) {
+        PomCoordinates coordinates;
+        try (InputStream in = Files.newInputStream(pomFile.toPath())) {
+            coordinates = PomCoordinatesReader.read(in);
+        } catch (IOException | XmlPullParserException e) {
+            log.debug("Unable to scan " + pomFile + ", trusting its path: " + e.getMessage());
+            unverifiedPoms.incrementAndGet();
+            return true;
+        }
+        if (!coordinates.isComplete() || coordinates.hasExpressions()) {
+            unverifiedPoms.incrementAndGet();
+            return true;
+        }
+        if (groupId.equals(coordinates.getGroupId()) && artifactId.equals(coordinates.getArtifactId())
+                && version.equals(coordinates.getVersion())) {
+            verifiedPoms.incrementAndGet();
+            return true;
+        }
+        mismatchedPoms.incrementAndGet();
+        log.warn(String.format("Skipping %s: POM declares %s:%s:%s, its path %s:%s:%s", pomFile.getParent(),
+                coordinates.getGroupId(), coordinates.getArtifactId(), coordinates.getVersion(),
+                groupId, artifactId, version));
+        return false;
+    }
+
+    private String relativePath(Path path) {
+        return root.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * A directory at least three levels below the root that holds {@code <parent name>-<directory name>.pom}.
+     */
+    private void flush(Path dir, List<Path> files, CandidateSink sink) throws MojoExecutionException {
+        if (files.isEmpty() || root.relativize(dir).getNameCount() < 3) {
+            ignoredFiles.addAndGet(files.size());
+            return;
+        }
+        String baseName = dir.getParent().getFileName() + "-" + dir.getFileName();
+        Path pom = dir.resolve(baseName + ".pom");
+        if (!files.contains(pom)) {
+            ignoredFiles.addAndGet(files.size());
+            return;
+        }
+        List<File> attachments = new ArrayList<>(files.size() - 1);
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (file.equals(pom)) continue;
+            if (isArtifactName(name, baseName)) {
+                attachments.add(file.toFile());
+            } else {
+                ignoredFiles.incrementAndGet();
+                log.debug("Not an artifact of " + baseName + ": " + file);
+            }
+        }
+        versionDirectories.incrementAndGet();
+        sink.accept(new DiscoveredFile(pom.toFile(), "pom", attachments));
+    }
+
+    /**
+     * {@code baseName.extension} or {@code baseName-classifier.extension}. Timestamped snapshot copies are left out:
+     * the local repository keeps snapshots under their base version only.
+     */
+    private static boolean isArtifactName(String name, String baseName) {
+        if (!name.startsWith(baseName) || name.length() <= baseName.length() + 1) return false;
+        if (IGNORED_NAMES.contains(name) || name.startsWith("maven-metadata")) return false;
+        for (String suffix : IGNORED_SUFFIXES) {
+            if (name.endsWith(suffix)) return false;
+        }
+        char separator = name.charAt(baseName.length());
+        if (separator == '.') return true;
+        int extension = name.indexOf('.', baseName.length() + 1);
+        return separator == '-' && extension > baseName.length() + 1 && extension < name.length() - 1;
+    }
+
+    String summary() {
+        return String.format("Repository layout: %d version directories (%d POMs verified, %d trusted, "
+                        + "%d skipped for mismatching coordinates), %d files ignored, walk %d ms",
+                versionDirectories.get(), verifiedPoms.get(), unverifiedPoms.get(), mismatchedPoms.get(),
+                ignoredFiles.get(), walkNanos / 1_000_000);
+    }
+
+    private class VersionDirectoryVisitor extends SimpleFileVisitor<Path> {
+        private final CandidateSink sink;
+        private final Deque<List<Path>> listings = new ArrayDeque<>();
+        private long sinkNanos;
+        private MojoExecutionException failure;
+
+        VersionDirectoryVisitor(CandidateSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (filter.excludesDirectory(relativePath(dir))) {
+                log.debug("Excluded directory: " + dir);
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            listings.push(new ArrayList<>());
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (attrs.isRegularFile()) {
+                if (filter.includesFile(relativePath(file))) {
+                    listings.peek().add(file);
+                } else {
+                    ignoredFiles.incrementAndGet();
+                }
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+            List<Path> files = listings.pop();
+            if (!isNull(e)) throw e;
+            long start = System.nanoTime();
+            try {
+                flush(dir, files, sink);
+            } catch (MojoExecutionException ex) {
+                failure = ex;
+                return FileVisitResult.TERMINATE;
+            } finally {
+                sinkNanos += System.nanoTime() - start;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            log.warn("Unable to read " + file + ": " + e);
+            return FileVisitResult.CONTINUE;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.uniclog;
+
+import org.eclipse.aether.artifact.Artifact;
+
+import java.io.File;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A discovered file together with the artifacts resolved from it (the file itself and its POM).
+ */
+class ResolvedFile {
+    private final File source;
+    private final List<Artifact> artifacts;
+
+    ResolvedFile(File source, List<Artifact> artifacts) {
+        this.source = source;
+        this.artifacts = artifacts;
+    }
+
+    File getSource() {
+        return source;
+    }
+
+    List<Artifact> getArtifacts() {
+        return artifacts;
+    }
+
+    /**
+     * @return the source followed by every other file the artifacts are installed from (POM, attachments)
+     */
+    Set<File> getSourceFiles() {
+        Set<File> files = new LinkedHashSet<>();
+        files.add(source);
+        for (Artifact artifact : artifacts) {
+            if (!isNull(artifact.getFile()) && !(artifact instanceof InMemoryArtifact)) {
+                files.add(artifact.getFile());
+            }
+        }
+        return files;
+    }
+}
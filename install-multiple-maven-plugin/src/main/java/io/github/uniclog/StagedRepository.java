@@ -0,0 +1,361 @@
+package io.github.uniclog;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A staging tree next to the local repository that install requests are written to, and moved into the repository
+ * one version directory at a time with atomic renames, so that readers never see a half-installed version.
+ * <p>
+ * A version directory that does not exist yet is renamed into place. One that does is first completed in the staging
+ * tree with the files it already holds (hard links where possible), then swapped: the old directory is renamed to a
+ * backup and the staged one into its place, leaving it missing for the time of a rename rather than half written.
+ * Repository metadata ({@code maven-metadata-local.xml}) is merged once the versions it lists are in place.
+ * <p>
+ * Each run stages in a directory of its own under the shared staging root, held with a file lock for as long as
+ * the run lasts, so that runs against the same repository do not touch each other's files. A run directory whose
+ * lock is free belongs to a run that died: {@link #open()} restores the backups a crash during a swap left in it
+ * and drops the rest. Not thread-safe, it is driven by the install thread.
+ */
+class StagedRepository {
+    private static final String METADATA = "maven-metadata-local.xml";
+    private static final String REMOTE_REPOSITORIES = "_remote.repositories";
+    private static final String LOCK = ".lock";
+
+    private final Path repository;
+    private final Path root;
+    private final Log log;
+    private Path lockFile;
+    private FileChannel lock;
+    private Path run;
+    private Path staging;
+    private Path backup;
+    private final Set<String> versionDirectories = new LinkedHashSet<>();
+    private int committedDirectories;
+    private int swappedDirectories;
+    private int commits;
+    private int rollbacks;
+    private long commitMillis;
+
+    StagedRepository(File repository, Log log) {
+        this.repository = repository.getAbsoluteFile().toPath();
+        this.root = this.repository.resolveSibling("." + this.repository.getFileName() + ".staging");
+        this.log = log;
+    }
+
+    /**
+     * The local repository base directory install requests are written to; known once {@link #open() opened}.
+     */
+    File getBasedir() {
+        return staging.toFile();
+    }
+
+    /**
+     * Takes a run directory under the staging root and locks it, then recovers the run directories of runs that
+     * died.
+     */
+    void open() throws IOException {
+        do {
+            if (!isNull(lock)) lock.close();
+            lock = null;
+            Files.createDirectories(root);
+            try {
+                lockFile = Files.createTempFile(root, "run-", LOCK);
+            } catch (NoSuchFileException e) {
+                continue; // the root was just removed by the last run to end
+            }
+            lock = FileChannel.open(lockFile, StandardOpenOption.WRITE);
+            try {
+                lock.lock();
+            } catch (IOException e) {
+                lock.close();
+                throw e;
+            }
+            // a concurrent recovery may have taken the fresh lock file for a stale one and deleted it
+        } while (isNull(lock) || !Files.exists(lockFile));
+        run = runDirectory(lockFile);
+        staging = run.resolve("repository");
+        backup = run.resolve("backup");
+
+        try (DirectoryStream<Path> locks = Files.newDirectoryStream(root, "run-*" + LOCK)) {
+            for (Path other : locks) {
+                if (!other.equals(lockFile)) recover(other);
+            }
+        }
+    }
+
+    private void recover(Path otherLockFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(otherLockFile, StandardOpenOption.WRITE);
+             FileLock owner = tryLock(channel)) {
+            if (isNull(owner)) return;
+            Path stale = runDirectory(otherLockFile);
+            restoreBackups(stale.resolve("backup"));
+            if (Files.exists(stale)) {
+                log.info("Discarding artifacts staged by an interrupted run in " + stale);
+                delete(stale);
+            }
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        Files.deleteIfExists(otherLockFile);
+    }
+
+    /**
+     * @return the lock, or {@code null} when another run, in this JVM or not, holds it
+     */
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static Path runDirectory(Path lockFile) {
+        String name = lockFile.getFileName().toString();
+        return lockFile.resolveSibling(name.substring(0, name.length() - LOCK.length()));
+    }
+
+    /**
+     * Moves back the version directories of a backup tree whose swap did not complete.
+     */
+    private void restoreBackups(Path backupRoot) throws IOException {
+        if (!Files.isDirectory(backupRoot)) return;
+        for (Path directory : listVersionDirectories(backupRoot)) {
+            Path target = repository.resolve(backupRoot.relativize(directory).toString());
+            if (Files.exists(target)) continue;
+            Files.createDirectories(target.getParent());
+            Files.move(directory, target, StandardCopyOption.ATOMIC_MOVE);
+            log.warn("Restored " + target + " from an interrupted commit");
+        }
+    }
+
+    /**
+     * @param artifactPath path of an installed artifact relative to the repository base directory
+     */
+    void add(String artifactPath) {
+        int separator = artifactPath.lastIndexOf('/');
+        versionDirectories.add(separator < 0 ? "" : artifactPath.substring(0, separator));
+    }
+
+    void commit() throws IOException {
+        if (versionDirectories.isEmpty()) return;
+
+        long start = System.nanoTime();
+        Set<Path> metadataDirectories = new LinkedHashSet<>();
+        for (String relativePath : versionDirectories) {
+            Path staged = staging.resolve(relativePath);
+            if (!Files.isDirectory(staged)) continue;
+            commit(staged, repository.resolve(relativePath));
+            Path artifactDirectory = staged.getParent();
+            metadataDirectories.add(artifactDirectory);
+            metadataDirectories.add(artifactDirectory.getParent());
+        }
+        for (Path directory : metadataDirectories) {
+            Path staged = directory.resolve(METADATA);
+            if (Files.isRegularFile(staged)) {
+                mergeMetadata(staged, repository.resolve(staging.relativize(staged).toString()));
+            }
+        }
+        versionDirectories.clear();
+        delete(staging);
+        delete(backup);
+        commits++;
+        commitMillis += (System.nanoTime() - start) / 1_000_000;
+    }
+
+    void rollback() {
+        if (versionDirectories.isEmpty() && !Files.exists(staging) && !Files.exists(backup)) return;
+        versionDirectories.clear();
+        try {
+            restoreBackups(backup);
+            delete(backup);
+            delete(staging);
+            rollbacks++;
+        } catch (IOException e) {
+            log.warn("Unable to discard staged artifacts in " + run + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the run directory and releases its lock; a backup that could not be restored is left for the
+     * recovery of a later run.
+     */
+    void close() {
+        if (isNull(lock)) return;
+        boolean clean;
+        try {
+            clean = !Files.isDirectory(backup) || listVersionDirectories(backup).isEmpty();
+            if (clean) delete(run);
+        } catch (IOException e) {
+            clean = false;
+            log.warn("Unable to clean up staging directory " + run + ": " + e.getMessage());
+        }
+        try {
+            lock.close();
+            if (clean) {
+                Files.deleteIfExists(lockFile);
+                Files.deleteIfExists(root);
+            }
+        } catch (DirectoryNotEmptyException e) {
+            log.debug("Staging root still in use by other runs: " + root);
+        } catch (IOException e) {
+            log.warn("Unable to release staging lock " + lockFile + ": " + e.getMessage());
+        } finally {
+            lock = null;
+        }
+    }
+
+    private void commit(Path staged, Path target) throws IOException {
+        try {
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+            } else if (hasSubdirectories(target)) {
+                merge(staged, target, false);
+                commitFiles(staged, target);
+            } else {
+                merge(staged, target, true);
+                Path saved = backup.resolve(repository.relativize(target).toString());
+                Files.createDirectories(saved.getParent());
+                Files.move(target, saved, StandardCopyOption.ATOMIC_MOVE);
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+                delete(saved);
+                swappedDirectories++;
+            }
+        } catch (AtomicMoveNotSupportedException e) {
+            throw new IOException("Staging tree " + staging + " must be on the same file system as " + repository, e);
+        }
+        committedDirectories++;
+        log.debug("Committed " + target);
+    }
+
+    /**
+     * Merges the records of {@code _remote.repositories} and the snapshot metadata this run did not write and,
+     * with {@code linkMissing}, adds the files of the installed version that it did not stage.
+     */
+    private void merge(Path staged, Path target, boolean linkMissing) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(target)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Path copy = staged.resolve(name);
+                if (name.equals(REMOTE_REPOSITORIES) && Files.isRegularFile(copy)) {
+                    Set<String> lines = new LinkedHashSet<>(Files.readAllLines(copy, StandardCharsets.UTF_8));
+                    Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                            .filter(line -> !line.startsWith("#"))
+                            .forEach(lines::add);
+                    Files.write(copy, lines, StandardCharsets.UTF_8);
+                } else if (name.equals(METADATA) && Files.isRegularFile(copy)) {
+                    mergeInto(file, copy);
+                } else if (linkMissing && !Files.exists(copy)) {
+                    link(file, copy);
+                }
+            }
+        }
+    }
+
+    /**
+     * A version directory that is also the parent of other artifacts cannot be swapped: its files are renamed
+     * into place one by one instead, the POM last.
+     */
+    private static void commitFiles(Path staged, Path target) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(staged, file -> !Files.isDirectory(file))) {
+            entries.forEach(files::add);
+        }
+        files.sort(Comparator.comparing(file -> file.getFileName().toString().endsWith(".pom")));
+        for (Path file : files) {
+            Files.move(file, target.resolve(file.getFileName().toString()),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private static boolean hasSubdirectories(Path directory) throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            return entries.iterator().hasNext();
+        }
+    }
+
+    private static void link(Path file, Path copy) throws IOException {
+        try {
+            Files.createLink(copy, file);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(file, copy, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+
+    private void mergeMetadata(Path staged, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        if (Files.isRegularFile(target)) {
+            mergeInto(target, staged);
+        }
+        Files.move(staged, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void mergeInto(Path installed, Path staged) throws IOException {
+        Metadata metadata = readMetadata(installed);
+        metadata.merge(readMetadata(staged));
+        try (OutputStream out = Files.newOutputStream(staged)) {
+            new MetadataXpp3Writer().write(out, metadata);
+        }
+    }
+
+    private static Metadata readMetadata(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return new MetadataXpp3Reader().read(in, false);
+        } catch (XmlPullParserException e) {
+            throw new IOException("Error parsing " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Path> listVersionDirectories(Path root) throws IOException {
+        List<Path> directories = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).map(Path::getParent).distinct().forEach(directories::add);
+        }
+        return directories;
+    }
+
+    private static void delete(Path root) throws IOException {
+        if (!Files.exists(root)) return;
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    String summary() {
+        return String.format("Staging: %d version directories committed (%d swapped with an installed version) "
+                        + "in %d commits (%d ms), %d rollbacks",
+                committedDirectories, swappedDirectories, commits, commitMillis, rollbacks);
+    }
+}
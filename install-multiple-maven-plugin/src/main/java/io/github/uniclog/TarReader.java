@@ -0,0 +1,217 @@
+package io.github.uniclog;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Minimal sequential tar reader, optionally gzip-compressed: ustar names with prefix, GNU long names and
+ * the {@code path} record of pax headers. Entry data is only read when asked for, and skipped otherwise.
+ */
+class TarReader implements Closeable {
+    private static final int BLOCK = 512;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private long remaining;
+    private long padding;
+
+    private TarReader(InputStream in) {
+        this.in = in;
+    }
+
+    static TarReader open(File file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE);
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        try {
+            return new TarReader(name.endsWith(".gz") || name.endsWith(".tgz") ? new GZIPInputStream(in, BUFFER_SIZE) : in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the next entry, or {@code null} at the end of the archive
+     */
+    Entry next() throws IOException {
+        skipFully(remaining + padding);
+        remaining = 0;
+        padding = 0;
+
+        String longName = null;
+        byte[] header = new byte[BLOCK];
+        while (true) {
+            if (!readBlock(header) || isZero(header)) return null;
+
+            long size = number(header, 124, 12);
+            byte type = header[156];
+            if (type == 'L') {
+                longName = readString(size);
+                continue;
+            }
+            if (type == 'x') {
+                String path = paxPath(readString(size));
+                if (!isNull(path)) longName = path;
+                continue;
+            }
+            if (type == 'g' || type == 'K') {
+                skipFully(size + padding(size));
+                continue;
+            }
+
+            String name = string(header, 0, 100);
+            if (string(header, 257, 5).equals("ustar")) {
+                String prefix = string(header, 345, 155);
+                if (!prefix.isEmpty()) name = prefix + "/" + name;
+            }
+            remaining = size;
+            padding = padding(size);
+            return new Entry(isNull(longName) ? name : longName, size, number(header, 136, 12) * 1000,
+                    type == '0' || type == 0 || type == '7');
+        }
+    }
+
+    /**
+     * @return the data of the current entry; valid until the next call to {@link #next()}
+     */
+    InputStream content() {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                if (remaining <= 0) return -1;
+                int b = in.read();
+                if (b < 0) throw new EOFException("Truncated tar entry");
+                remaining--;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (remaining <= 0) return -1;
+                int n = in.read(buffer, offset, (int) Math.min(length, remaining));
+                if (n < 0) throw new EOFException("Truncated tar entry");
+                remaining -= n;
+                return n;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString(long size) throws IOException {
+        if (size > Integer.MAX_VALUE - BLOCK) throw new IOException("Tar header too large: " + size);
+        byte[] data = in.readNBytes((int) size);
+        if (data.length != size) throw new EOFException("Truncated tar header");
+        skipFully(padding(size));
+        int length = data.length;
+        while (length > 0 && data[length - 1] == 0) length--;
+        return new String(data, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static String paxPath(String records) {
+        for (String record : records.split("\n")) {
+            int space = record.indexOf(' ');
+            if (space > 0 && record.startsWith("path=", space + 1)) {
+                return record.substring(space + 1 + "path=".length());
+            }
+        }
+        return null;
+    }
+
+    private boolean readBlock(byte[] block) throws IOException {
+        int read = in.readNBytes(block, 0, BLOCK);
+        if (read == 0) return false;
+        if (read < BLOCK) throw new EOFException("Truncated tar header");
+        return true;
+    }
+
+    private void skipFully(long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                if (in.read() < 0) throw new EOFException("Truncated tar entry");
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    private static long padding(long size) {
+        return (BLOCK - size % BLOCK) % BLOCK;
+    }
+
+    private static boolean isZero(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) return false;
+        }
+        return true;
+    }
+
+    private static String string(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) end++;
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Octal, or big-endian binary when the high bit of the first byte is set (GNU extension for large sizes).
+     */
+    private static long number(byte[] header, int offset, int length) {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7f;
+            for (int i = 1; i < length; i++) value = (value << 8) | (header[offset + i] & 0xff);
+            return value;
+        }
+        int i = offset;
+        int end = offset + length;
+        while (i < end && (header[i] == ' ' || header[i] == 0)) i++;
+        long value = 0;
+        for (; i < end && header[i] >= '0' && header[i] <= '7'; i++) {
+            value = value * 8 + (header[i] - '0');
+        }
+        return value;
+    }
+
+    static class Entry {
+        private final String name;
+        private final long size;
+        private final long lastModified;
+        private final boolean file;
+
+        Entry(String name, long size, long lastModified, boolean file) {
+            this.name = name;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.file = file;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+
+        boolean isFile() {
+            return file;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.uniclog;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors used by the install pipeline.
+ * Java 11-20 variant backed by a fixed pool of platform threads; the Java 21+ variant
+ * in {@code src/main/java21} runs every task on its own virtual thread.
+ */
+final class WorkerThreads {
+    private WorkerThreads() {
+    }
+
+    static ExecutorService newResolveExecutor(int threads) {
+        return Executors.newFixedThreadPool(threads, namedThreads("install-multiple-resolve"));
+    }
+
+    static String describe(int threads) {
+        return threads + " platform threads";
+    }
+
+    static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
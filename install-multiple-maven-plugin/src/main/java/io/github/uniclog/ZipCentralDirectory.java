@@ -0,0 +1,240 @@
+package io.github.uniclog;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Minimal zip reader that loads only the central directory and selects entries by a byte-level
+ * name prefix check, without decoding names or building an entry table for the rest of the archive.
+ * Supports stored and deflated entries and zip64 archives.
+ * <p>
+ * The central directory is read with positional reads into a heap buffer, usually straight from the tail read
+ * that located it, rather than memory-mapped: a mapping outlives {@link #close()} until garbage collected, which
+ * on Windows keeps the jar from being deleted or replaced (spooled bundle entries, linked installs).
+ */
+class ZipCentralDirectory implements Closeable {
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EOCD_SIGNATURE = 0x06064b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int EOCD_SIZE = 22;
+    private static final int MAX_COMMENT = 0xFFFF;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private final FileChannel channel;
+    private final ByteBuffer centralDirectory;
+    private final long entryCount;
+
+    private ZipCentralDirectory(FileChannel channel, ByteBuffer centralDirectory, long entryCount) {
+        this.channel = channel;
+        this.centralDirectory = centralDirectory;
+        this.entryCount = entryCount;
+    }
+
+    static ZipCentralDirectory open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < EOCD_SIZE) throw new ZipException("Not a zip file: " + file);
+
+            int tailLength = (int) Math.min(size, EOCD_SIZE + MAX_COMMENT);
+            ByteBuffer tail = read(channel, size - tailLength, tailLength);
+            int eocd = -1;
+            for (int i = tailLength - EOCD_SIZE; i >= 0; i--) {
+                if (tail.getInt(i) == EOCD_SIGNATURE) {
+                    eocd = i;
+                    break;
+                }
+            }
+            if (eocd < 0) throw new ZipException("End of central directory not found: " + file);
+
+            long entries = Short.toUnsignedLong(tail.getShort(eocd + 10));
+            long cdSize = Integer.toUnsignedLong(tail.getInt(eocd + 12));
+            long cdOffset = Integer.toUnsignedLong(tail.getInt(eocd + 16));
+            if (entries == 0xFFFF || cdSize == ZIP64_MAGIC || cdOffset == ZIP64_MAGIC) {
+                long locator = size - tailLength + eocd - 20;
+                ByteBuffer locatorBuffer = read(channel, locator, 20);
+                if (locatorBuffer.getInt(0) != ZIP64_LOCATOR_SIGNATURE) {
+                    throw new ZipException("Zip64 locator not found: " + file);
+                }
+                ByteBuffer zip64 = read(channel, locatorBuffer.getLong(8), 56);
+                if (zip64.getInt(0) != ZIP64_EOCD_SIGNATURE) {
+                    throw new ZipException("Zip64 end of central directory not found: " + file);
+                }
+                entries = zip64.getLong(32);
+                cdSize = zip64.getLong(40);
+                cdOffset = zip64.getLong(48);
+            }
+            if (cdOffset + cdSize > size || cdSize > Integer.MAX_VALUE) {
+                throw new ZipException("Invalid central directory: " + file);
+            }
+
+            long tailOffset = size - tailLength;
+            ByteBuffer centralDirectory = cdOffset >= tailOffset
+                    ? slice(tail, (int) (cdOffset - tailOffset), (int) cdSize)
+                    : read(channel, cdOffset, (int) cdSize);
+            return new ZipCentralDirectory(channel, centralDirectory, entries);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the entries whose name starts with {@code prefix} (ASCII), in central directory order
+     */
+    List<Entry> entries(byte[] prefix) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        int position = 0;
+        for (long i = 0; i < entryCount; i++) {
+            if (position + 46 > centralDirectory.limit()
+                    || centralDirectory.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory header at " + position);
+            }
+            int nameLength = Short.toUnsignedInt(centralDirectory.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(centralDirectory.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(centralDirectory.getShort(position + 32));
+            int name = position + 46;
+            if (startsWith(name, nameLength, prefix)) {
+                entries.add(readEntry(position, name, nameLength, extraLength));
+            }
+            position = name + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    byte[] read(Entry entry) throws IOException {
+        if (entry.size > Integer.MAX_VALUE - 8 || entry.compressedSize > Integer.MAX_VALUE - 8) {
+            throw new ZipException("Entry too large: " + entry.name);
+        }
+        ByteBuffer local = read(channel, entry.localHeaderOffset, 30);
+        if (local.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header for " + entry.name);
+        }
+        long dataOffset = entry.localHeaderOffset + 30
+                + Short.toUnsignedInt(local.getShort(26)) + Short.toUnsignedInt(local.getShort(28));
+        ByteBuffer data = read(channel, dataOffset, (int) entry.compressedSize);
+
+        switch (entry.method) {
+            case 0:
+                return data.array();
+            case 8:
+                Inflater inflater = new Inflater(true);
+                try {
+                    inflater.setInput(data.array());
+                    byte[] content = new byte[(int) entry.size];
+                    int inflated = 0;
+                    while (inflated < content.length && !inflater.finished()) {
+                        int n = inflater.inflate(content, inflated, content.length - inflated);
+                        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                        inflated += n;
+                    }
+                    if (inflated != content.length) throw new ZipException("Truncated entry " + entry.name);
+                    return content;
+                } catch (DataFormatException e) {
+                    throw new ZipException("Invalid deflate data for " + entry.name + ": " + e.getMessage());
+                } finally {
+                    inflater.end();
+                }
+            default:
+                throw new ZipException("Unsupported compression method " + entry.method + " for " + entry.name);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean startsWith(int name, int nameLength, byte[] prefix) {
+        if (nameLength < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (centralDirectory.get(name + i) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    private Entry readEntry(int header, int name, int nameLength, int extraLength) throws ZipException {
+        int flags = Short.toUnsignedInt(centralDirectory.getShort(header + 8));
+        if ((flags & 1) != 0) throw new ZipException("Encrypted entry");
+        int method = Short.toUnsignedInt(centralDirectory.getShort(header + 10));
+        long compressedSize = Integer.toUnsignedLong(centralDirectory.getInt(header + 20));
+        long size = Integer.toUnsignedLong(centralDirectory.getInt(header + 24));
+        long localHeaderOffset = Integer.toUnsignedLong(centralDirectory.getInt(header + 42));
+
+        if (size == ZIP64_MAGIC || compressedSize == ZIP64_MAGIC || localHeaderOffset == ZIP64_MAGIC) {
+            int extra = name + nameLength;
+            int end = extra + extraLength;
+            while (extra + 4 <= end) {
+                int id = Short.toUnsignedInt(centralDirectory.getShort(extra));
+                int length = Short.toUnsignedInt(centralDirectory.getShort(extra + 2));
+                if (id == 0x0001) {
+                    int field = extra + 4;
+                    if (size == ZIP64_MAGIC) {
+                        size = centralDirectory.getLong(field);
+                        field += 8;
+                    }
+                    if (compressedSize == ZIP64_MAGIC) {
+                        compressedSize = centralDirectory.getLong(field);
+                        field += 8;
+                    }
+                    if (localHeaderOffset == ZIP64_MAGIC) {
+                        localHeaderOffset = centralDirectory.getLong(field);
+                    }
+                    break;
+                }
+                extra += 4 + length;
+            }
+        }
+
+        byte[] nameBytes = new byte[nameLength];
+        centralDirectory.duplicate().position(name).get(nameBytes);
+        return new Entry(new String(nameBytes, StandardCharsets.UTF_8), method, compressedSize, size, localHeaderOffset);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new ZipException("Unexpected end of file");
+            }
+        }
+        return buffer;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        return buffer.duplicate().position(offset).limit(offset + length).slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static class Entry {
+        private final String name;
+        private final int method;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+
+        Entry(String name, int method, long compressedSize, long size, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        String getName() {
+            return name;
+        }
+    }
+}
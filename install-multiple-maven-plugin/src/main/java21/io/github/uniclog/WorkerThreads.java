@@ -0,0 +1,33 @@
+package io.github.uniclog;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors used by the install pipeline.
+ * Java 21+ variant: every extract/parse task runs on its own virtual thread, concurrency is
+ * bounded by the pipeline's open-file semaphore rather than by the pool size.
+ */
+final class WorkerThreads {
+    private WorkerThreads() {
+    }
+
+    static ExecutorService newResolveExecutor(int threads) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("install-multiple-resolve-", 1).factory());
+    }
+
+    static String describe(int threads) {
+        return "virtual threads";
+    }
+
+    static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
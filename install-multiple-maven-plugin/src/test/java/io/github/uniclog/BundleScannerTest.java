@@ -0,0 +1,63 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BundleScannerTest {
+    private static final int GROUPS = 50;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void groupsThatAreNotInstalledAreReleasedRightAway() throws Exception {
+        File spool = dir.resolve("spool").toFile();
+        var scanner = new BundleScanner(bundle(), spool, List.of(), PathFilter.ALL, new SystemStreamLog());
+        var installer = new ArtifactInstaller(null, null, 1, spool, new SystemStreamLog());
+        var pipeline = new InstallPipeline(1, 1, file -> Collections.emptyList(), installer, new SystemStreamLog());
+        pipeline.setDiscardListener(scanner::release);
+
+        scanner.scan(pipeline::submit);
+        pipeline.await();
+
+        String summary = scanner.summary();
+        assertTrue(summary.contains((GROUPS * 2) + " files spooled"), summary);
+        int peak = Integer.parseInt(summary.substring(summary.indexOf("at most ") + 8, summary.indexOf(" at once")));
+        assertTrue(peak <= 4, summary);
+        assertEquals(0, spooledFiles(spool));
+    }
+
+    private File bundle() throws IOException {
+        Path bundle = dir.resolve("bundle.zip");
+        try (OutputStream out = Files.newOutputStream(bundle); var zip = new ZipOutputStream(out)) {
+            for (int i = 0; i < GROUPS; i++) {
+                zip.putNextEntry(new ZipEntry("lib/a" + i + "-1.0.jar"));
+                zip.write(new byte[]{1});
+                zip.putNextEntry(new ZipEntry("lib/a" + i + "-1.0.pom"));
+                zip.write(new byte[]{1});
+            }
+        }
+        return bundle.toFile();
+    }
+
+    private static long spooledFiles(File spool) throws IOException {
+        try (Stream<Path> files = Files.walk(spool.toPath())) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
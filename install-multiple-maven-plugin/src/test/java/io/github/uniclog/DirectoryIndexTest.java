@@ -0,0 +1,68 @@
+package io.github.uniclog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DirectoryIndexTest {
+
+    @Test
+    void pairsPomByBaseName() {
+        var index = new DirectoryIndex<String>(List.of());
+        index.add("foo-1.0.pom", "pom", "foo-1.0.pom");
+        index.add("foo-1.0.jar", "jar", "foo-1.0.jar");
+
+        List<DirectoryIndex.Group<String>> groups = index.groups();
+        assertEquals(List.of("foo-1.0.jar"), mains(groups));
+        assertEquals("foo-1.0.pom", groups.get(0).getPom());
+    }
+
+    @Test
+    void pairsDifferentlyNamedPomByCoordinates() {
+        var index = new DirectoryIndex<String>(List.of());
+        index.setPomCoordinates(Map.of("foo.pom", coordinates("foo", "1.0"), "bar.pom", coordinates("bar", "2.0"))::get);
+        index.add("foo.pom", "pom", "foo.pom");
+        index.add("bar.pom", "pom", "bar.pom");
+        index.add("foo-1.0.jar", "jar", "foo-1.0.jar");
+
+        List<DirectoryIndex.Group<String>> groups = index.groups();
+        assertEquals(List.of("bar.pom", "foo-1.0.jar"), mains(groups));
+        assertEquals("foo.pom", groups.get(1).getPom());
+        assertEquals("g:foo:jar:1.0", groups.get(1).getPomCoordinates().toString());
+        assertEquals("g:bar:jar:2.0", groups.get(0).getPomCoordinates().toString());
+        assertEquals(1, index.getPairedPoms());
+    }
+
+    @Test
+    void filteredOutBinaryDoesNotHoldBackItsPom() {
+        var index = new DirectoryIndex<String>(List.of());
+        index.add("foo-1.0.pom", "pom", "foo-1.0.pom");
+        index.add("foo-1.0.jar", null, "foo-1.0.jar");
+
+        assertEquals(List.of("foo-1.0.pom"), mains(index.groups()));
+        assertEquals(0, index.getPairedPoms());
+    }
+
+    @Test
+    void attachesClassifiedFiles() {
+        var index = new DirectoryIndex<String>(List.of("*"));
+        index.add("foo-1.0.jar", "jar", "foo-1.0.jar");
+        index.add("foo-1.0-sources.jar", "jar", "foo-1.0-sources.jar");
+
+        List<DirectoryIndex.Group<String>> groups = index.groups();
+        assertEquals(List.of("foo-1.0.jar"), mains(groups));
+        assertEquals(List.of("foo-1.0-sources.jar"), groups.get(0).getAttachments());
+    }
+
+    private static PomCoordinates coordinates(String artifactId, String version) {
+        return new PomCoordinates("g", artifactId, version, null, null, null, null);
+    }
+
+    private static List<String> mains(List<DirectoryIndex.Group<String>> groups) {
+        return groups.stream().map(DirectoryIndex.Group::getMain).collect(Collectors.toList());
+    }
+}
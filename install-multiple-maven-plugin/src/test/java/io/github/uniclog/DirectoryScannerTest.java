@@ -0,0 +1,72 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DirectoryScannerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void handsOverDirectoryBeforeWalkingItsSubdirectories() throws Exception {
+        file("a/b/c/deep-1.0.pom");
+        file("a/b/mid-1.0.pom");
+        file("a/top-1.0.pom");
+        file("root-1.0.pom");
+
+        assertEquals(List.of("root-1.0.pom", "a/top-1.0.pom", "a/b/mid-1.0.pom", "a/b/c/deep-1.0.pom"), scan());
+    }
+
+    @Test
+    void followsLinksButVisitsEachDirectoryOnce() throws Exception {
+        file("lib/a-1.0.pom");
+        Files.createSymbolicLink(dir.resolve("lib/loop"), dir);
+        Files.createSymbolicLink(dir.resolve("alias"), dir.resolve("lib"));
+
+        List<String> found = scan();
+        assertEquals(1, found.size(), found.toString());
+        assertEquals("a-1.0.pom", Path.of(found.get(0)).getFileName().toString());
+    }
+
+    @Test
+    void handsPairedPomAndItsCoordinatesToResolver() throws Exception {
+        file("foo-1.0.zip");
+        Path pom = dir.resolve("foo.pom");
+        Files.write(pom, "<project><groupId>g</groupId><artifactId>foo</artifactId><version>1.0</version></project>"
+                .getBytes(StandardCharsets.UTF_8));
+
+        List<DiscoveredFile> found = new ArrayList<>();
+        new DirectoryScanner(true, new SystemStreamLog()).scan(dir.toFile(), found::add);
+        assertEquals(1, found.size());
+        assertEquals(pom.toFile(), found.get(0).getPom());
+
+        Files.write(pom, "not read again".getBytes(StandardCharsets.UTF_8));
+        List<Artifact> artifacts = new FileResolver(new SystemStreamLog()).resolve(found.get(0));
+        assertEquals("g:foo:zip:1.0", artifacts.get(0).toString());
+        assertEquals(pom.toFile(), artifacts.get(1).getFile());
+    }
+
+    private List<String> scan() throws Exception {
+        var scanner = new DirectoryScanner(true, new SystemStreamLog());
+        List<String> found = new ArrayList<>();
+        scanner.scan(dir.toFile(), file ->
+                found.add(dir.relativize(file.getFile().toPath()).toString().replace('\\', '/')));
+        return found;
+    }
+
+    private void file(String path) throws IOException {
+        Files.createDirectories(dir.resolve(path).getParent());
+        Files.write(dir.resolve(path), new byte[]{1});
+    }
+}
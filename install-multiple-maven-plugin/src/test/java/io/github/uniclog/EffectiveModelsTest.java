@@ -0,0 +1,115 @@
+package io.github.uniclog;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EffectiveModelsTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void interpolatesWithParentProperties() throws Exception {
+        File parent = pom("parent-1.0.pom", "<groupId>g</groupId><artifactId>parent</artifactId>"
+                + "<version>1.0</version><packaging>pom</packaging>"
+                + "<properties><revision>2.0</revision><suffix>-lib</suffix></properties>");
+        File child = pom("child.pom", parent("parent", "1.0")
+                + "<artifactId>child${suffix}</artifactId><version>${revision}</version>");
+        var models = new EffectiveModels(() -> List.of(parent), null, new Properties(), new SystemStreamLog());
+
+        assertEquals("g:child-lib:jar:2.0", models.resolve(read(child), child).toString());
+
+        var overridden = new Properties();
+        overridden.setProperty("revision", "3.0");
+        models = new EffectiveModels(() -> List.of(parent), null, overridden, new SystemStreamLog());
+        assertEquals("g:child-lib:jar:3.0", models.resolve(read(child), child).toString());
+    }
+
+    @Test
+    void cachesResolvedPomsOnlyWhenTheyCanBeParents() throws Exception {
+        File parent = pom("parent-1.0.pom", "<groupId>g</groupId><artifactId>parent</artifactId>"
+                + "<version>1.0</version><packaging>pom</packaging>");
+        File library = pom("lib-1.0.pom", "<groupId>g</groupId><artifactId>lib</artifactId><version>1.0</version>");
+        var models = new EffectiveModels(List::of, null, new Properties(), new SystemStreamLog());
+        models.resolve(read(parent), parent);
+        models.resolve(read(library), library);
+
+        File child = pom("child.pom", parent("parent", "1.0") + "<artifactId>child</artifactId>");
+        File libraryChild = pom("library-child.pom", parent("lib", "1.0") + "<artifactId>other</artifactId>");
+        models.resolve(read(child), child);
+        models.resolve(read(libraryChild), libraryChild);
+
+        String summary = models.summary();
+        assertTrue(summary.endsWith("1 not found, 1 cache hits"), summary);
+    }
+
+    @Test
+    void parentCycleAcrossThreadsDoesNotHang() throws Exception {
+        File a = pom("a-1.0.pom", parent("b", "1.0") + "<artifactId>a</artifactId><packaging>pom</packaging>");
+        File b = pom("b-1.0.pom", parent("a", "1.0") + "<artifactId>b</artifactId><packaging>pom</packaging>");
+        Map<String, File> repository = Map.of("a", a, "b", b);
+        var bothReading = new CyclicBarrier(2);
+        Function<Artifact, File> repositoryPoms = artifact -> {
+            try {
+                bothReading.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return repository.get(artifact.getArtifactId());
+        };
+        var models = new EffectiveModels(null, repositoryPoms, new Properties(), new SystemStreamLog());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            CompletableFuture<PomCoordinates> first = CompletableFuture.supplyAsync(() -> resolve(models, a));
+            CompletableFuture<PomCoordinates> second = CompletableFuture.supplyAsync(() -> resolve(models, b));
+            assertEquals("g:a:pom:1.0", first.get().toString());
+            assertEquals("g:b:pom:1.0", second.get().toString());
+        });
+    }
+
+    private static PomCoordinates resolve(EffectiveModels models, File pom) {
+        try {
+            return models.resolve(read(pom), pom);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String parent(String artifactId, String version) {
+        return "<parent><groupId>g</groupId><artifactId>" + artifactId + "</artifactId><version>" + version
+                + "</version><relativePath/></parent>";
+    }
+
+    private File pom(String name, String content) throws IOException {
+        return Files.write(dir.resolve(name), ("<project><modelVersion>4.0.0</modelVersion>" + content + "</project>")
+                .getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+
+    private static Model read(File pom) throws Exception {
+        try (InputStream in = Files.newInputStream(pom.toPath())) {
+            return new MavenXpp3Reader().read(in);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.uniclog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmbeddedPomSelectorTest {
+    private static final List<EmbeddedPomSelector.Candidate> SHADED = List.of(
+            new EmbeddedPomSelector.Candidate("org.lib", "lib", "2.0"),
+            new EmbeddedPomSelector.Candidate("com.example", "app", "1.0"),
+            new EmbeddedPomSelector.Candidate("com.example", "app-core", "1.0"));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void fileNameRulePrefersArtifactIdAndVersion() {
+        var selector = EmbeddedPomSelector.FILE_NAME;
+
+        assertEquals(1, selector.select(new File("app-1.0.jar"), SHADED));
+        assertEquals(2, selector.select(new File("app-core-1.0-shaded.jar"), SHADED));
+        assertEquals(2, selector.select(new File("app-core.jar"), SHADED));
+        assertEquals(-1, selector.select(new File("other-1.0.jar"), SHADED));
+    }
+
+    @Test
+    void fileNameRuleKeepsSinglePomAndRejectsTies() {
+        var selector = EmbeddedPomSelector.FILE_NAME;
+
+        assertEquals(0, selector.select(new File("renamed.jar"), SHADED.subList(0, 1)));
+        assertEquals(-1, selector.select(new File("app-1.0.jar"), List.of(
+                new EmbeddedPomSelector.Candidate("a", "app", "1.0"),
+                new EmbeddedPomSelector.Candidate("b", "app", "1.0"))));
+        assertEquals(-1, selector.select(new File("app-1.0.jar"), List.of()));
+    }
+
+    @Test
+    void firstRuleTakesFirstPom() {
+        assertSame(EmbeddedPomSelector.FIRST, EmbeddedPomSelector.compile(" first "));
+        assertEquals(0, EmbeddedPomSelector.FIRST.select(new File("other-1.0.jar"), SHADED));
+    }
+
+    @Test
+    void coordinatesRuleMatchesThenNarrowsByFileName() {
+        assertEquals(0, EmbeddedPomSelector.compile("org.*:lib").select(new File("app-1.0.jar"), SHADED));
+        var example = EmbeddedPomSelector.compile("com.example:*");
+        assertEquals(2, example.select(new File("app-core-1.0.jar"), SHADED));
+        assertEquals(-1, example.select(new File("other-1.0.jar"), SHADED));
+        assertEquals(-1, EmbeddedPomSelector.compile("net:*").select(new File("app-1.0.jar"), SHADED));
+    }
+
+    @Test
+    void compileRejectsMalformedRules() {
+        assertSame(EmbeddedPomSelector.FILE_NAME, EmbeddedPomSelector.compile(null));
+        assertThrows(IllegalArgumentException.class, () -> EmbeddedPomSelector.compile("a:b:c"));
+        assertThrows(IllegalArgumentException.class, () -> EmbeddedPomSelector.compile(":app"));
+    }
+
+    @Test
+    void shadedJarSelectsOwnPomOrFailsAsAmbiguous() throws IOException {
+        File jar = jar("app-1.0.jar");
+        EmbeddedPom pom = JarPomReader.read(jar, EmbeddedPomSelector.FILE_NAME);
+        assertEquals("com.example:app:jar:1.0", pom.getPropertiesCoordinates().toString());
+        assertTrue(new String(pom.getPom(), StandardCharsets.UTF_8).contains("<artifactId>app</artifactId>"));
+        assertEquals("org.lib:lib:jar:2.0", JarPomReader.readWithJarFile(jar, EmbeddedPomSelector.compile("org.lib:*"))
+                .getPropertiesCoordinates().toString());
+
+        File renamed = Files.move(jar.toPath(), dir.resolve("renamed.jar")).toFile();
+        var e = assertThrows(JarPomReader.AmbiguousPomException.class,
+                () -> JarPomReader.read(renamed, EmbeddedPomSelector.FILE_NAME));
+        assertTrue(e.getMessage().startsWith("renamed.jar embeds 2 POMs, none selected by rule 'filename'"), e.getMessage());
+        assertEquals("org.lib:lib:jar:2.0",
+                JarPomReader.read(renamed, EmbeddedPomSelector.FIRST).getPropertiesCoordinates().toString());
+    }
+
+    @Test
+    void jarWithoutPomHasNone() throws IOException {
+        File jar = dir.resolve("plain.jar").toFile();
+        try (var zip = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+            entry(zip, "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n");
+        }
+        assertNull(JarPomReader.read(jar, EmbeddedPomSelector.FILE_NAME));
+    }
+
+    private File jar(String name) throws IOException {
+        File jar = dir.resolve(name).toFile();
+        try (OutputStream out = Files.newOutputStream(jar.toPath()); var zip = new ZipOutputStream(out)) {
+            embed(zip, "org.lib", "lib", "2.0");
+            embed(zip, "com.example", "app", "1.0");
+        }
+        return jar;
+    }
+
+    private static void embed(ZipOutputStream zip, String groupId, String artifactId, String version)
+            throws IOException {
+        String directory = "META-INF/maven/" + groupId + "/" + artifactId + "/";
+        entry(zip, directory + "pom.xml", "<project><groupId>" + groupId + "</groupId><artifactId>" + artifactId
+                + "</artifactId><version>" + version + "</version></project>");
+        entry(zip, directory + "pom.properties", "groupId=" + groupId + "\nartifactId=" + artifactId
+                + "\nversion=" + version + "\n");
+    }
+
+    private static void entry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
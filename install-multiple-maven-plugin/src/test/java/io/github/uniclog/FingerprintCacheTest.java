@@ -0,0 +1,73 @@
+package io.github.uniclog;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FingerprintCacheTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void unchangedGroupIsSkippedAfterReload() throws IOException {
+        File jar = file("in/a-1.0.jar");
+        File pom = file("in/a-1.0.pom");
+        record(List.of(artifact("jar", jar), artifact("pom", pom)));
+
+        assertTrue(load().isUnchanged(jar, List.of(jar, pom)));
+    }
+
+    @Test
+    void attachmentAddedBetweenRunsIsNotSkipped() throws IOException {
+        File jar = file("in/a-1.0.jar");
+        File pom = file("in/a-1.0.pom");
+        record(List.of(artifact("jar", jar), artifact("pom", pom)));
+
+        File sources = file("in/a-1.0-sources.jar");
+        assertFalse(load().isUnchanged(jar, List.of(jar, sources, pom)));
+    }
+
+    @Test
+    void changedOrUninstalledFileIsNotSkipped() throws IOException {
+        File jar = file("in/a-1.0.jar");
+        File pom = file("in/a-1.0.pom");
+        record(List.of(artifact("jar", jar), artifact("pom", pom)));
+
+        Files.write(pom.toPath(), new byte[]{1, 2});
+        assertFalse(load().isUnchanged(jar, List.of(jar, pom)));
+
+        record(List.of(artifact("jar", jar), artifact("pom", pom)));
+        Files.delete(dir.resolve("repo/g/a/1.0/a-1.0.jar"));
+        assertFalse(load().isUnchanged(jar, List.of(jar, pom)));
+    }
+
+    private void record(List<Artifact> artifacts) throws IOException {
+        file("repo/g/a/1.0/a-1.0.jar");
+        FingerprintCache cache = load();
+        cache.record(new ResolvedFile(artifacts.get(0).getFile(), artifacts), "g/a/1.0/a-1.0.jar");
+        cache.save();
+    }
+
+    private FingerprintCache load() throws IOException {
+        return FingerprintCache.load(dir.resolve("fingerprints").toFile(), dir.resolve("repo").toFile(), false);
+    }
+
+    private static Artifact artifact(String extension, File file) {
+        return new DefaultArtifact("g", "a", extension, "1.0").setFile(file);
+    }
+
+    private File file(String path) throws IOException {
+        Files.createDirectories(dir.resolve(path).getParent());
+        return Files.write(dir.resolve(path), new byte[]{1}).toFile();
+    }
+}
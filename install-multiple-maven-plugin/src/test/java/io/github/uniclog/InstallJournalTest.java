@@ -0,0 +1,109 @@
+package io.github.uniclog;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstallJournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void interruptedRunKeepsJournalForResume() throws IOException {
+        File journalFile = dir.resolve("journal").toFile();
+        var journal = InstallJournal.open(journalFile, false);
+        journal.record(installed("a"));
+        journal.record(installed("b"));
+        journal.close(false);
+
+        var resumed = InstallJournal.open(journalFile, true);
+        assertTrue(resumed.isInstalled(source("a"), List.of(source("a"))));
+        assertTrue(resumed.isInstalled(source("b"), List.of(source("b"))));
+        assertFalse(resumed.isInstalled(source("c"), List.of(source("c"))));
+        resumed.close(false);
+        assertTrue(journalFile.isFile());
+    }
+
+    @Test
+    void attachmentAddedSinceInterruptedRunIsInstalled() throws IOException {
+        File journalFile = dir.resolve("journal").toFile();
+        File sources = dir.resolve("a-1.0-sources.jar").toFile();
+        var journal = InstallJournal.open(journalFile, false);
+        journal.record(installed("a"));
+        journal.close(false);
+
+        var resumed = InstallJournal.open(journalFile, true);
+        assertFalse(resumed.isInstalled(source("a"), List.of(source("a"), sources)));
+        resumed.record(new ResolvedFile(source("a"), List.of(
+                new DefaultArtifact("g", "a", "jar", "1.0").setFile(source("a")),
+                new DefaultArtifact("g", "a", "sources", "jar", "1.0").setFile(sources))));
+        resumed.close(false);
+
+        var again = InstallJournal.open(journalFile, true);
+        assertTrue(again.isInstalled(source("a"), List.of(source("a"), sources)));
+        again.close(true);
+    }
+
+    @Test
+    void completedRunRemovesJournal() throws IOException {
+        File journalFile = dir.resolve("journal").toFile();
+        var journal = InstallJournal.open(journalFile, false);
+        journal.record(installed("a"));
+        journal.close(true);
+
+        assertFalse(journalFile.exists());
+    }
+
+    @Test
+    void tornLastLineIsInstalledAgain() throws IOException {
+        Path journalFile = dir.resolve("journal");
+        Files.write(journalFile, ("# install-multiple journal v2\n"
+                + "g:a:jar:1.0\t" + source("a").getAbsolutePath() + "\n"
+                + "g:b:jar:1.0\t" + source("b").getAbsolutePath().substring(0, 5)).getBytes(StandardCharsets.UTF_8));
+
+        var resumed = InstallJournal.open(journalFile.toFile(), true);
+        assertTrue(resumed.isInstalled(source("a"), List.of(source("a"))));
+        assertFalse(resumed.isInstalled(source("b"), List.of(source("b"))));
+        resumed.record(installed("b"));
+        resumed.close(false);
+
+        List<String> lines = Files.readAllLines(journalFile);
+        assertEquals("g:b:jar:1.0\t" + source("b").getAbsolutePath(), lines.get(lines.size() - 1));
+        var again = InstallJournal.open(journalFile.toFile(), true);
+        assertTrue(again.isInstalled(source("b"), List.of(source("b"))));
+        again.close(true);
+    }
+
+    @Test
+    void runNotResumedStartsNewJournal() throws IOException {
+        File journalFile = dir.resolve("journal").toFile();
+        var journal = InstallJournal.open(journalFile, false);
+        journal.record(installed("a"));
+        journal.close(false);
+
+        InstallJournal.open(journalFile, false).close(false);
+        var resumed = InstallJournal.open(journalFile, true);
+        assertFalse(resumed.isInstalled(source("a"), List.of(source("a"))));
+        resumed.close(true);
+    }
+
+    private ResolvedFile installed(String name) {
+        File source = source(name);
+        return new ResolvedFile(source, List.of(new DefaultArtifact("g", name, "jar", "1.0").setFile(source)));
+    }
+
+    private File source(String name) {
+        return dir.resolve(name + "-1.0.jar").toFile();
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.installation.InstallationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstallPipelineTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void unexpectedInstallErrorAbortsInsteadOfHanging() {
+        var installer = new ArtifactInstaller(failingRepositorySystem(new IllegalArgumentException("lock timeout")),
+                null, 1, dir.resolve("spool").toFile(), new SystemStreamLog());
+        var pipeline = new InstallPipeline(2, 2, this::resolve, installer, new SystemStreamLog());
+
+        MojoExecutionException e = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try {
+                for (int i = 0; i < 200; i++) {
+                    pipeline.submit(new DiscoveredFile(file("a-" + i + ".jar"), "jar", List.of()));
+                }
+            } catch (MojoExecutionException discovery) {
+                assertTrue(discovery.getMessage().contains("discovery stopped"), discovery.getMessage());
+            }
+            return assertThrows(MojoExecutionException.class, pipeline::await);
+        });
+        assertTrue(e.getMessage().contains("failed to install"), e.getMessage());
+    }
+
+    @Test
+    void failedBatchReportsEveryFile() throws Exception {
+        var installer = new ArtifactInstaller(failingRepositorySystem(new InstallationException("disk full")),
+                null, 3, dir.resolve("spool").toFile(), new SystemStreamLog());
+        var pipeline = new InstallPipeline(2, 4, this::resolve, installer, new SystemStreamLog());
+        for (int i = 0; i < 3; i++) {
+            pipeline.submit(new DiscoveredFile(file("b-" + i + ".jar"), "jar", List.of()));
+        }
+
+        MojoExecutionException e = assertThrows(MojoExecutionException.class, pipeline::await);
+        assertTrue(e.getMessage().startsWith("3 artifacts failed"), e.getMessage());
+    }
+
+    private List<org.eclipse.aether.artifact.Artifact> resolve(DiscoveredFile discovered) {
+        File file = discovered.getFile();
+        String name = file.getName().substring(0, file.getName().indexOf('.'));
+        return List.of(new DefaultArtifact("g", name, "jar", "1.0").setFile(file));
+    }
+
+    private File file(String name) throws IOException {
+        return Files.write(dir.resolve(name), new byte[]{1}).toFile();
+    }
+
+    private static RepositorySystem failingRepositorySystem(Throwable failure) {
+        return (RepositorySystem) Proxy.newProxyInstance(RepositorySystem.class.getClassLoader(),
+                new Class<?>[]{RepositorySystem.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("install")) throw failure;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
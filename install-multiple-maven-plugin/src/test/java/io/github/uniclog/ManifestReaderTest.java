@@ -0,0 +1,122 @@
+package io.github.uniclog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.isNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ManifestReaderTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsPlainListRelativeToManifest() throws IOException {
+        List<ManifestReader.Entry> entries = read("files.txt", "\uFEFF# comment\n\nlib/a-1.0.jar\n  /abs/b-2.0.zip  \n");
+
+        assertEquals(2, entries.size());
+        assertEquals(dir.resolve("lib/a-1.0.jar").toFile(), entries.get(0).getFile());
+        assertEquals(3, entries.get(0).getLine());
+        assertEquals(new File("/abs/b-2.0.zip"), entries.get(1).getFile());
+        assertFalse(entries.get(1).hasCoordinates());
+    }
+
+    @Test
+    void readsCsvWithHeaderAndQuotedFields() throws IOException {
+        List<ManifestReader.Entry> entries = read("files.csv", "path,groupId,artifactId,version,classifier,extension\n"
+                + "\"lib/with,comma-1.0.jar\",org.example,\"with,comma\",1.0\n"
+                + "lib/a-1.0-sources.jar, org.example , a , 1.0 , sources\n"
+                + "\"lib/say \"\"hi\"\".bin\",org.example,hi,1,,tar.gz\n"
+                + "lib/plain.jar\n");
+
+        assertEquals(4, entries.size());
+        ManifestReader.Entry comma = entries.get(0);
+        assertEquals(dir.resolve("lib/with,comma-1.0.jar").toFile(), comma.getFile());
+        assertEquals("with,comma", comma.getArtifactId());
+        assertEquals("", comma.getClassifier());
+        assertEquals("jar", comma.getExtension());
+        assertEquals(2, comma.getLine());
+
+        assertEquals("org.example", entries.get(1).getGroupId());
+        assertEquals("sources", entries.get(1).getClassifier());
+
+        assertEquals("lib/say \"hi\".bin", dir.relativize(entries.get(2).getFile().toPath()).toString()
+                .replace(File.separatorChar, '/'));
+        assertEquals("tar.gz", entries.get(2).getExtension());
+        assertFalse(entries.get(3).hasCoordinates());
+    }
+
+    @Test
+    void csvHeaderIsOnlySkippedOnFirstLine() throws IOException {
+        List<ManifestReader.Entry> entries = read("files.csv", "a.jar\npath\n");
+        assertEquals(List.of(dir.resolve("a.jar").toFile(), dir.resolve("path").toFile()),
+                List.of(entries.get(0).getFile(), entries.get(1).getFile()));
+    }
+
+    @Test
+    void readsJsonArrayWithEscapes() throws IOException {
+        List<ManifestReader.Entry> entries = read("files.json", "[\n"
+                + "  \"lib\\/a-1.0.jar\",\n"
+                + "  {\"path\": \"lib/caf\\u00e9 \\\"b\\\".jar\", \"groupId\": \"g\", \"artifactId\": \"b\",\n"
+                + "   \"version\": 2.0, \"classifier\": null, \"size\": 12, \"signed\": true}\n"
+                + "]\n");
+
+        assertEquals(2, entries.size());
+        assertEquals(dir.resolve("lib/a-1.0.jar").toFile(), entries.get(0).getFile());
+        ManifestReader.Entry b = entries.get(1);
+        assertEquals(new File(dir.toFile(), "lib/café \"b\".jar"), b.getFile());
+        assertEquals("2.0", b.getVersion());
+        assertEquals("", b.getClassifier());
+        assertEquals(3, b.getLine());
+    }
+
+    @Test
+    void readsJsonLines() throws IOException {
+        List<ManifestReader.Entry> entries = read("files.jsonl",
+                "{\"file\":\"a-1.0.jar\",\"groupId\":\"g\",\"artifactId\":\"a\",\"version\":\"1.0\"}\n"
+                        + "\n"
+                        + "{\"path\":\"b-2.0.zip\"}\n"
+                        + "\"c-3.0.pom\"\n");
+
+        assertEquals(3, entries.size());
+        assertTrue(entries.get(0).hasCoordinates());
+        assertEquals("jar", entries.get(0).getExtension());
+        assertEquals(3, entries.get(1).getLine());
+        assertEquals(dir.resolve("c-3.0.pom").toFile(), entries.get(2).getFile());
+    }
+
+    @Test
+    void rejectsPartialCoordinatesWithLineNumber() {
+        IOException e = assertThrows(IOException.class,
+                () -> read("files.jsonl", "{\"path\":\"a.jar\"}\n{\"path\":\"b.jar\",\"groupId\":\"g\"}\n"));
+        assertEquals("line 2: groupId, artifactId and version must be given together", e.getMessage());
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        IOException e = assertThrows(IOException.class, () -> read("files.csv", "\"a.jar,g,a,1\n"));
+        assertEquals("line 1: unterminated quote", e.getMessage());
+    }
+
+    private List<ManifestReader.Entry> read(String name, String content) throws IOException {
+        File manifest = Files.write(dir.resolve(name), content.getBytes(StandardCharsets.UTF_8)).toFile();
+        List<ManifestReader.Entry> entries = new ArrayList<>();
+        try (ManifestReader reader = ManifestReader.open(manifest)) {
+            for (ManifestReader.Entry entry = reader.next(); !isNull(entry); entry = reader.next()) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ManifestScannerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void installsSiblingPomOrGeneratesOne() throws Exception {
+        file("a-1.0.jar");
+        File siblingPom = file("a-1.0.pom");
+        file("b-2.0.jar");
+        file("b-2.0-sources.jar");
+        List<ResolvedFile> resolved = scan("path,groupId,artifactId,version,classifier\n"
+                + "a-1.0.jar,g,a,1.0\n"
+                + "b-2.0.jar,g,b,2.0\n"
+                + "b-2.0-sources.jar,g,b,2.0,sources\n", dir.resolve("repository").toFile());
+
+        List<Artifact> a = resolved.get(0).getArtifacts();
+        assertEquals(2, a.size());
+        assertEquals("pom", a.get(1).getExtension());
+        assertEquals(siblingPom, a.get(1).getFile());
+
+        List<Artifact> b = resolved.get(1).getArtifacts();
+        assertEquals(2, b.size());
+        String pom = new String(assertInstanceOf(InMemoryArtifact.class, b.get(1)).getContent(), StandardCharsets.UTF_8);
+        assertTrue(pom.contains("<groupId>g</groupId>") && pom.contains("<artifactId>b</artifactId>")
+                && pom.contains("<version>2.0</version>"), pom);
+
+        assertEquals(1, resolved.get(2).getArtifacts().size());
+    }
+
+    @Test
+    void keepsPomAlreadyInRepository() throws Exception {
+        file("b-2.0.jar");
+        File repository = dir.resolve("repository").toFile();
+        Files.createDirectories(repository.toPath().resolve("g/b/2.0"));
+        Files.write(repository.toPath().resolve("g/b/2.0/b-2.0.pom"), new byte[]{1});
+
+        List<ResolvedFile> resolved = scan("b-2.0.jar,g,b,2.0\n", repository);
+        assertEquals(1, resolved.get(0).getArtifacts().size());
+    }
+
+    private List<ResolvedFile> scan(String manifest, File repository) throws Exception {
+        File manifestFile = Files.write(dir.resolve("files.csv"), manifest.getBytes(StandardCharsets.UTF_8)).toFile();
+        var scanner = new ManifestScanner(manifestFile, artifact -> new File(repository, artifact.getGroupId() + "/"
+                + artifact.getArtifactId() + "/" + artifact.getVersion() + "/" + artifact.getArtifactId() + "-"
+                + artifact.getVersion() + "." + artifact.getExtension()), new SystemStreamLog());
+        List<ResolvedFile> resolved = new ArrayList<>();
+        scanner.scan(file -> {
+            throw new AssertionError("unexpected candidate " + file.getFile());
+        }, resolved::add);
+        return resolved;
+    }
+
+    private File file(String name) throws IOException {
+        return Files.write(dir.resolve(name), new byte[]{1}).toFile();
+    }
+}
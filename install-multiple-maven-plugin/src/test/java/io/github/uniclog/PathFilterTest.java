@@ -0,0 +1,93 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathFilterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void doubleStarSlashMatchesAnyDepthIncludingRoot() {
+        var filter = PathFilter.compile(List.of("**/*.jar"), List.of());
+
+        assertTrue(filter.includesFile("a.jar"));
+        assertTrue(filter.includesFile("lib/a.jar"));
+        assertTrue(filter.includesFile("lib/ext/a.jar"));
+        assertFalse(filter.includesFile("a.pom"));
+    }
+
+    @Test
+    void singleStarAndQuestionMarkStayInOneDirectory() {
+        var filter = PathFilter.compile(List.of("*.jar", "lib/?/*.zip"), List.of());
+
+        assertTrue(filter.includesFile("a.jar"));
+        assertFalse(filter.includesFile("lib/a.jar"));
+        assertTrue(filter.includesFile("lib/x/a.zip"));
+        assertFalse(filter.includesFile("lib/xy/a.zip"));
+        assertFalse(filter.includesFile("lib/x/y/a.zip"));
+    }
+
+    @Test
+    void trailingDoubleStarExcludesDirectoryAndEverythingBelow() {
+        var filter = PathFilter.compile(List.of(), List.of("**/vendor/**", "build/"));
+
+        assertTrue(filter.excludesDirectory("vendor"));
+        assertTrue(filter.excludesDirectory("a/b/vendor"));
+        assertTrue(filter.excludesDirectory("a/vendor/c"));
+        assertTrue(filter.excludesDirectory("build"));
+        assertFalse(filter.excludesDirectory("vendors"));
+        assertFalse(filter.excludesDirectory(""));
+        assertFalse(filter.includesFile("vendor/a.jar"));
+        assertTrue(filter.includesFile("lib/a.jar"));
+    }
+
+    @Test
+    void prefixedPatternsUsePathMatcherSyntax() {
+        var filter = PathFilter.compile(List.of("glob:**.{jar,zip}", "regex:.*\\.pom"), List.of("regex:.*-SNAPSHOT.*"));
+
+        assertTrue(filter.includesFile("lib/a.zip"));
+        assertTrue(filter.includesFile("a.pom"));
+        assertFalse(filter.includesFile("a.txt"));
+        assertFalse(filter.includesFile("a-1.0-SNAPSHOT.jar"));
+    }
+
+    @Test
+    void noPatternsIncludeEverything() {
+        assertSame(PathFilter.ALL, PathFilter.compile(null, List.of()));
+        assertTrue(PathFilter.compile(null, List.of(" ")).includesFile("lib/a.txt"));
+        assertThrows(IllegalArgumentException.class, () -> PathFilter.compile(List.of("regex:("), null));
+    }
+
+    @Test
+    void excludedDirectoriesArePrunedDuringDiscovery() throws IOException {
+        file("a-1.0.pom");
+        file("lib/b-1.0.pom");
+        file("lib/vendor/c-1.0.pom");
+        file("vendor/d-1.0.pom");
+        var scanner = new DirectoryScanner(true, new SystemStreamLog());
+        scanner.setFilter(PathFilter.compile(List.of(), List.of("**/vendor/**")));
+
+        List<File> poms = scanner.listPoms(dir.toFile());
+        poms.sort(null);
+        assertEquals(List.of(dir.resolve("a-1.0.pom").toFile(), dir.resolve("lib/b-1.0.pom").toFile()), poms);
+    }
+
+    private void file(String path) throws IOException {
+        Files.createDirectories(dir.resolve(path).getParent());
+        Files.write(dir.resolve(path), new byte[]{1});
+    }
+}
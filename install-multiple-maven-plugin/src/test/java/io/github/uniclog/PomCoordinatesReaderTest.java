@@ -0,0 +1,100 @@
+package io.github.uniclog;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PomCoordinatesReaderTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsProjectCoordinatesOnly() throws Exception {
+        PomCoordinates coordinates = read("<?xml version=\"1.0\"?>\n<project>\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "  <dependencies><dependency><groupId>dep</groupId><artifactId>d</artifactId>"
+                + "<version>9</version></dependency></dependencies>\n"
+                + "  <groupId> g </groupId><artifactId>a</artifactId><version>1.0</version>\n"
+                + "  <packaging>maven-plugin</packaging>\n"
+                + "</project>");
+
+        assertEquals("g:a:maven-plugin:1.0", coordinates.toString());
+        assertNull(coordinates.getParentGroupId());
+    }
+
+    @Test
+    void inheritsGroupIdAndVersionFromParent() throws Exception {
+        PomCoordinates coordinates = read("<project><parent><groupId>pg</groupId><artifactId>parent</artifactId>"
+                + "<version>2.0</version><relativePath>../pom.xml</relativePath></parent>"
+                + "<artifactId>child</artifactId></project>");
+
+        assertTrue(coordinates.isComplete());
+        assertEquals("pg:child:jar:2.0", coordinates.toString());
+        assertEquals("parent", coordinates.getParentArtifactId());
+    }
+
+    @Test
+    void ignoresCommentsAndReadsCdata() throws Exception {
+        PomCoordinates coordinates = read("<project>\n"
+                + "  <!-- <groupId>wrong</groupId> -->\n"
+                + "  <groupId><!-- inline -->g</groupId>\n"
+                + "  <artifactId><![CDATA[a]]></artifactId>\n"
+                + "  <version>1.0<!-- trailing --></version>\n"
+                + "</project>");
+
+        assertEquals("g:a:jar:1.0", coordinates.toString());
+    }
+
+    @Test
+    void leavesExpressionsAndMissingCoordinatesToModelReader() throws Exception {
+        PomCoordinates expression = read("<project><groupId>g</groupId><artifactId>a</artifactId>"
+                + "<version>${revision}</version></project>");
+        assertTrue(expression.hasExpressions());
+
+        assertFalse(read("<project><artifactId>a</artifactId></project>").isComplete());
+        assertThrows(XmlPullParserException.class, () -> read("<settings><groupId>g</groupId></settings>"));
+    }
+
+    @Test
+    void resolverFallsBackToModelReader() throws Exception {
+        var resolver = new FileResolver(new SystemStreamLog());
+        List<Artifact> revision = resolver.resolve(new DiscoveredFile(pom("revision.pom",
+                "<project><modelVersion>4.0.0</modelVersion>"
+                + "<groupId>g</groupId><artifactId>a</artifactId><version>${revision}</version>"
+                + "<properties><revision>1.2</revision></properties></project>"), "pom", List.of()));
+        assertEquals("g:a:pom:1.2", revision.get(0).toString());
+
+        List<Artifact> entity = resolver.resolve(new DiscoveredFile(pom("entity.pom",
+                "<project><modelVersion>4.0.0</modelVersion>"
+                + "<groupId>g</groupId><artifactId>b</artifactId><version>1.0</version>"
+                + "<name>caf&eacute;</name></project>"), "pom", List.of()));
+        assertEquals("g:b:pom:1.0", entity.get(0).toString());
+
+        String summary = resolver.summary(0);
+        assertTrue(summary.contains("by coordinate scanner: 0, by full model reader: 2"), summary);
+    }
+
+    private static PomCoordinates read(String pom) throws IOException, XmlPullParserException {
+        return PomCoordinatesReader.read(new ByteArrayInputStream(pom.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private File pom(String name, String content) throws IOException {
+        return Files.write(dir.resolve(name), content.getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+}
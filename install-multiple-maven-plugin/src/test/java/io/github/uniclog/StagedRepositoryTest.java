@@ -0,0 +1,149 @@
+package io.github.uniclog;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StagedRepositoryTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void commitsNewVersionDirectory() throws Exception {
+        Path repository = dir.resolve("repo");
+        var staged = open(repository);
+        stage(staged, "g/a/1.0/a-1.0.jar", "jar");
+        stage(staged, "g/a/1.0/a-1.0.pom", "pom");
+
+        staged.commit();
+        staged.close();
+
+        assertEquals("jar", read(repository.resolve("g/a/1.0/a-1.0.jar")));
+        assertEquals("pom", read(repository.resolve("g/a/1.0/a-1.0.pom")));
+        assertFalse(Files.exists(dir.resolve(".repo.staging")));
+    }
+
+    @Test
+    void swapsInstalledVersionKeepingItsOtherFiles() throws Exception {
+        Path repository = dir.resolve("repo");
+        write(repository.resolve("g/a/1.0/a-1.0.jar"), "old jar");
+        write(repository.resolve("g/a/1.0/a-1.0-sources.jar"), "sources");
+        write(repository.resolve("g/a/1.0/_remote.repositories"), "#note\na-1.0-sources.jar>=\n");
+
+        var staged = open(repository);
+        stage(staged, "g/a/1.0/a-1.0.jar", "new jar");
+        stage(staged, "g/a/1.0/_remote.repositories", "a-1.0.jar>=\n");
+        staged.commit();
+        staged.close();
+
+        assertEquals("new jar", read(repository.resolve("g/a/1.0/a-1.0.jar")));
+        assertEquals("sources", read(repository.resolve("g/a/1.0/a-1.0-sources.jar")));
+        assertEquals(List.of("a-1.0.jar>=", "a-1.0-sources.jar>="),
+                Files.readAllLines(repository.resolve("g/a/1.0/_remote.repositories")));
+    }
+
+    @Test
+    void mergesRepositoryMetadata() throws Exception {
+        Path repository = dir.resolve("repo");
+        writeMetadata(repository.resolve("g/a/maven-metadata-local.xml"), "0.9");
+        write(repository.resolve("g/a/0.9/a-0.9.jar"), "jar");
+
+        var staged = open(repository);
+        stage(staged, "g/a/1.0/a-1.0.jar", "jar");
+        writeMetadata(staged.getBasedir().toPath().resolve("g/a/maven-metadata-local.xml"), "1.0");
+        staged.commit();
+        staged.close();
+
+        try (InputStream in = Files.newInputStream(repository.resolve("g/a/maven-metadata-local.xml"))) {
+            assertEquals(List.of("0.9", "1.0"), new MetadataXpp3Reader().read(in).getVersioning().getVersions());
+        }
+    }
+
+    @Test
+    void rollbackLeavesRepositoryUntouched() throws Exception {
+        Path repository = dir.resolve("repo");
+        write(repository.resolve("g/a/1.0/a-1.0.jar"), "old jar");
+
+        var staged = open(repository);
+        stage(staged, "g/a/1.0/a-1.0.jar", "new jar");
+        staged.rollback();
+        staged.close();
+
+        assertEquals("old jar", read(repository.resolve("g/a/1.0/a-1.0.jar")));
+        assertFalse(Files.exists(dir.resolve(".repo.staging")));
+    }
+
+    @Test
+    void recoversOnlyRunsWhoseOwnerIsGone() throws Exception {
+        Path repository = dir.resolve("repo");
+        Path root = dir.resolve(".repo.staging");
+        write(root.resolve("run-dead.lock"), "");
+        write(root.resolve("run-dead/backup/g/a/1.0/a-1.0.jar"), "swapped out");
+        write(root.resolve("run-dead/repository/g/b/1.0/b-1.0.jar"), "never committed");
+
+        var live = open(repository);
+        stage(live, "g/c/1.0/c-1.0.jar", "in flight");
+        var staged = open(repository);
+
+        assertEquals("swapped out", read(repository.resolve("g/a/1.0/a-1.0.jar")));
+        assertFalse(Files.exists(root.resolve("run-dead")));
+        assertFalse(Files.exists(root.resolve("run-dead.lock")));
+        assertTrue(Files.isRegularFile(live.getBasedir().toPath().resolve("g/c/1.0/c-1.0.jar")));
+
+        staged.close();
+        live.commit();
+        live.close();
+        assertEquals("in flight", read(repository.resolve("g/c/1.0/c-1.0.jar")));
+        assertFalse(Files.exists(root));
+    }
+
+    private StagedRepository open(Path repository) throws IOException {
+        Files.createDirectories(repository);
+        var staged = new StagedRepository(repository.toFile(), new SystemStreamLog());
+        staged.open();
+        return staged;
+    }
+
+    private static void stage(StagedRepository staged, String path, String content) throws IOException {
+        write(staged.getBasedir().toPath().resolve(path), content);
+        staged.add(path);
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    private static void writeMetadata(Path file, String version) throws IOException {
+        var metadata = new Metadata();
+        metadata.setGroupId("g");
+        metadata.setArtifactId("a");
+        var versioning = new Versioning();
+        versioning.addVersion(version);
+        metadata.setVersioning(versioning);
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            new MetadataXpp3Writer().write(out, metadata);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.uniclog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarReaderTest {
+    private static final String LONG_NAME = "repository/" + "very-long-directory-name/".repeat(8) + "lib-1.0.jar";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsUstarEntriesAndSkipsUnreadContent() throws IOException {
+        var tar = new ByteArrayOutputStream();
+        entry(tar, "lib/a-1.0.pom", '0', bytes("<project/>"));
+        entry(tar, "lib/", '5', new byte[0]);
+        entry(tar, "lib/a-1.0.jar", '0', new byte[1500]);
+        end(tar);
+
+        try (TarReader reader = TarReader.open(write("a.tar", tar.toByteArray()))) {
+            TarReader.Entry pom = reader.next();
+            assertEquals("lib/a-1.0.pom", pom.getName());
+            assertTrue(pom.isFile());
+            assertEquals("<project/>", read(reader.content()));
+
+            assertFalse(reader.next().isFile());
+            TarReader.Entry jar = reader.next();
+            assertEquals("lib/a-1.0.jar", jar.getName());
+            assertEquals(1500, jar.getSize());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readsGnuLongName() throws IOException {
+        var tar = new ByteArrayOutputStream();
+        entry(tar, "././@LongLink", 'L', bytes(LONG_NAME + "\0"));
+        entry(tar, LONG_NAME.substring(0, 100), '0', bytes("jar"));
+        entry(tar, "short.pom", '0', bytes("pom"));
+        end(tar);
+
+        try (TarReader reader = TarReader.open(write("gnu.tar.gz", gzip(tar.toByteArray())))) {
+            assertEquals(LONG_NAME, reader.next().getName());
+            assertEquals("jar", read(reader.content()));
+            assertEquals("short.pom", reader.next().getName());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readsPaxPath() throws IOException {
+        String record = " path=" + LONG_NAME + "\n";
+        String mtime = "20 mtime=1700000000\n";
+        String length = String.valueOf(record.length() + 3);
+        var tar = new ByteArrayOutputStream();
+        entry(tar, "PaxHeaders/lib-1.0.jar", 'x', bytes(mtime + length + record));
+        entry(tar, "lib-1.0.jar", '0', bytes("jar"));
+        end(tar);
+
+        try (TarReader reader = TarReader.open(write("pax.tar", tar.toByteArray()))) {
+            assertEquals(LONG_NAME, reader.next().getName());
+            assertEquals("jar", read(reader.content()));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void failsOnTruncatedArchive() throws IOException {
+        var tar = new ByteArrayOutputStream();
+        entry(tar, "a.pom", '0', bytes("pom"));
+        entry(tar, "b.jar", '0', new byte[2000]);
+        byte[] truncated = Arrays.copyOf(tar.toByteArray(), 512 * 3 + 100);
+
+        try (TarReader reader = TarReader.open(write("truncated.tar", truncated))) {
+            assertEquals("a.pom", reader.next().getName());
+            assertEquals("b.jar", reader.next().getName());
+            assertThrows(EOFException.class, reader::next);
+        }
+        try (TarReader reader = TarReader.open(write("truncated-header.tar", Arrays.copyOf(truncated, 700)))) {
+            assertEquals("a.pom", reader.next().getName());
+            assertThrows(EOFException.class, reader::next);
+        }
+    }
+
+    private static void entry(OutputStream out, String name, char type, byte[] data) throws IOException {
+        byte[] header = new byte[512];
+        put(header, 0, name.getBytes(StandardCharsets.UTF_8));
+        put(header, 100, bytes("0000644"));
+        put(header, 124, bytes(String.format("%011o", data.length)));
+        put(header, 136, bytes(String.format("%011o", 1_700_000_000L)));
+        header[156] = (byte) type;
+        put(header, 257, bytes("ustar"));
+        put(header, 263, bytes("00"));
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        int checksum = 0;
+        for (byte b : header) checksum += b & 0xff;
+        put(header, 148, bytes(String.format("%06o", checksum)));
+        header[154] = 0;
+        out.write(header);
+        out.write(data);
+        out.write(new byte[(512 - data.length % 512) % 512]);
+    }
+
+    private static void end(OutputStream out) throws IOException {
+        out.write(new byte[1024]);
+    }
+
+    private static void put(byte[] header, int offset, byte[] value) {
+        System.arraycopy(value, 0, header, offset, Math.min(value.length, 100));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static String read(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private File write(String name, byte[] data) throws IOException {
+        return Files.write(dir.resolve(name), data).toFile();
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.uniclog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ZipCentralDirectoryTest {
+    private static final byte[] MAVEN = "META-INF/maven/".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsStoredAndDeflatedEntries() throws IOException {
+        byte[] pom = "<project><artifactId>a</artifactId></project>".repeat(50).getBytes(StandardCharsets.UTF_8);
+        byte[] properties = "version=1.0\n".getBytes(StandardCharsets.UTF_8);
+        File jar = dir.resolve("a.jar").toFile();
+        try (var zip = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+            put(zip, "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8), true);
+            put(zip, "META-INF/maven/g/a/pom.xml", pom, true);
+            put(zip, "META-INF/maven/g/a/pom.properties", properties, false);
+            put(zip, "a/A.class", new byte[]{1, 2, 3}, false);
+        }
+
+        try (var zip = ZipCentralDirectory.open(jar)) {
+            List<ZipCentralDirectory.Entry> entries = zip.entries(MAVEN);
+            assertEquals(List.of("META-INF/maven/g/a/pom.xml", "META-INF/maven/g/a/pom.properties"),
+                    entries.stream().map(ZipCentralDirectory.Entry::getName).collect(Collectors.toList()));
+            assertArrayEquals(pom, zip.read(entries.get(0)));
+            assertArrayEquals(properties, zip.read(entries.get(1)));
+        }
+    }
+
+    @Test
+    void findsEndOfCentralDirectoryBeforeComment() throws IOException {
+        byte[] pom = "<project/>".getBytes(StandardCharsets.UTF_8);
+        File jar = dir.resolve("commented.jar").toFile();
+        try (var zip = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+            put(zip, "META-INF/maven/g/a/pom.xml", pom, true);
+            zip.setComment("built by a tool that likes comments ".repeat(100));
+        }
+
+        try (var zip = ZipCentralDirectory.open(jar)) {
+            List<ZipCentralDirectory.Entry> entries = zip.entries(MAVEN);
+            assertEquals(1, entries.size());
+            assertArrayEquals(pom, zip.read(entries.get(0)));
+        }
+    }
+
+    @Test
+    void readsCentralDirectoryLargerThanTail() throws IOException {
+        byte[] pom = "<project/>".getBytes(StandardCharsets.UTF_8);
+        File jar = dir.resolve("fat.jar").toFile();
+        try (var zip = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+            put(zip, "META-INF/maven/g/a/pom.xml", pom, false);
+            for (int i = 0; i < 2000; i++) {
+                put(zip, "com/example/generated/package/Class" + i + ".class", new byte[]{1}, false);
+            }
+        }
+
+        try (var zip = ZipCentralDirectory.open(jar)) {
+            List<ZipCentralDirectory.Entry> entries = zip.entries(MAVEN);
+            assertEquals(1, entries.size());
+            assertArrayEquals(pom, zip.read(entries.get(0)));
+        }
+        Files.delete(jar.toPath());
+    }
+
+    @Test
+    void readsZip64ExtraFieldAndEndOfCentralDirectory() throws IOException {
+        byte[] pom = "<project><version>64</version></project>".getBytes(StandardCharsets.UTF_8);
+        File jar = dir.resolve("zip64.jar").toFile();
+        writeZip64(jar, 1000, "META-INF/maven/g/a/pom.xml", pom);
+
+        try (var zip = ZipCentralDirectory.open(jar)) {
+            List<ZipCentralDirectory.Entry> entries = zip.entries(MAVEN);
+            assertEquals(1, entries.size());
+            assertEquals("META-INF/maven/g/a/pom.xml", entries.get(0).getName());
+            assertArrayEquals(pom, zip.read(entries.get(0)));
+        }
+    }
+
+    @Test
+    void rejectsFileWithoutCentralDirectory() throws IOException {
+        File file = Files.write(dir.resolve("not.jar"), new byte[100]).toFile();
+        assertThrows(ZipException.class, () -> ZipCentralDirectory.open(file).close());
+    }
+
+    private static void put(ZipOutputStream zip, String name, byte[] data, boolean deflated) throws IOException {
+        var entry = new ZipEntry(name);
+        if (!deflated) {
+            var crc = new CRC32();
+            crc.update(data);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCompressedSize(data.length);
+            entry.setCrc(crc.getValue());
+        }
+        zip.putNextEntry(entry);
+        zip.write(data);
+        zip.closeEntry();
+    }
+
+    /**
+     * A single stored entry after {@code stubLength} bytes of stub, with every size and offset of the central
+     * directory moved to the zip64 extra field and the zip64 end of central directory records.
+     */
+    private static void writeZip64(File file, int stubLength, String name, byte[] data) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        var crc = new CRC32();
+        crc.update(data);
+        long localHeader = stubLength;
+
+        ByteBuffer local = buffer(30 + nameBytes.length + data.length)
+                .putInt(0x04034b50).putShort((short) 45).putShort((short) 0).putShort((short) 0)
+                .putInt(0).putInt((int) crc.getValue()).putInt(data.length).putInt(data.length)
+                .putShort((short) nameBytes.length).putShort((short) 0).put(nameBytes).put(data);
+
+        long centralDirectory = localHeader + local.capacity();
+        ByteBuffer central = buffer(46 + nameBytes.length + 28)
+                .putInt(0x02014b50).putShort((short) 45).putShort((short) 45).putShort((short) 0).putShort((short) 0)
+                .putInt(0).putInt((int) crc.getValue()).putInt(-1).putInt(-1)
+                .putShort((short) nameBytes.length).putShort((short) 28).putShort((short) 0)
+                .putShort((short) 0).putShort((short) 0).putInt(0).putInt(-1).put(nameBytes)
+                .putShort((short) 0x0001).putShort((short) 24)
+                .putLong(data.length).putLong(data.length).putLong(localHeader);
+
+        long zip64End = centralDirectory + central.capacity();
+        ByteBuffer end = buffer(56 + 20 + 22)
+                .putInt(0x06064b50).putLong(44).putShort((short) 45).putShort((short) 45).putInt(0).putInt(0)
+                .putLong(1).putLong(1).putLong(central.capacity()).putLong(centralDirectory)
+                .putInt(0x07064b50).putInt(0).putLong(zip64End).putInt(1)
+                .putInt(0x06054b50).putShort((short) 0).putShort((short) 0).putShort((short) -1).putShort((short) -1)
+                .putInt(-1).putInt(-1).putShort((short) 0);
+
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            out.write(new byte[stubLength]);
+            out.write(local.array());
+            out.write(central.array());
+            out.write(end.array());
+        }
+    }
+
+    private static ByteBuffer buffer(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}